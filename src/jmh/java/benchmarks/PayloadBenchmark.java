@@ -0,0 +1,61 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import data.ActivityDataGenerator;
+import data.RequestDataFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a request body: the Map payloads REST Assured serializes with
+ * Jackson versus the pre-encoded templates, both ending in the bytes that go on the wire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadBenchmark {
+
+    private final RequestDataFactory dataFactory = new RequestDataFactory();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ActivityDataGenerator generator = new ActivityDataGenerator();
+    private long generatedIndex;
+
+    @Benchmark
+    public Map<String, Object> mapPayload() {
+        return dataFactory.buildNewActivityPayload();
+    }
+
+    @Benchmark
+    public byte[] mapPayloadSerialized() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(dataFactory.buildNewActivityPayload());
+    }
+
+    @Benchmark
+    public byte[] templatePayload() {
+        return dataFactory.buildNewActivityPayloadBytes();
+    }
+
+    @Benchmark
+    public byte[] templateUpdatePayload() {
+        return dataFactory.buildUpdatePayloadBytes(7, "Updated Activity Title");
+    }
+
+    @Benchmark
+    public Map<String, Object> generatedPayload() {
+        return generator.payload(generatedIndex++ & 0xFFFFF);
+    }
+}
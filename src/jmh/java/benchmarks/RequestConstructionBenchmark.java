@@ -0,0 +1,79 @@
+package benchmarks;
+
+import data.RequestDataFactory;
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ActivityService;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of an ActivityService call with the network taken out: a global
+ * REST Assured filter answers every request with a canned response, so what is left is
+ * request specification, body serialization, the filter chain, response extraction and
+ * logging. Logging runs in sampled mode, as it would under load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dlog.sampleEvery=1000000", "-Dlog4j2.configurationFile=log4j2-perf.xml"})
+@State(Scope.Benchmark)
+public class RequestConstructionBenchmark {
+
+    private static final String ACTIVITY_JSON =
+            "{\"id\":1,\"title\":\"Activity 1\",\"dueDate\":\"2026-01-01T00:00:00Z\",\"completed\":false}";
+
+    private ActivityService activityService;
+    private Map<String, Object> payload;
+    private byte[] templatePayload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Never contacted: the filter below answers before any connection is made
+        RestAssured.baseURI = "http://127.0.0.1:9";
+        RestAssured.filters((request, response, context) -> new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(ACTIVITY_JSON)
+                .build());
+        activityService = new ActivityService(false);
+        RequestDataFactory dataFactory = new RequestDataFactory();
+        payload = dataFactory.buildNewActivityPayload();
+        templatePayload = dataFactory.buildNewActivityPayloadBytes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RestAssured.reset();
+    }
+
+    @Benchmark
+    public Response createActivityFromMap() {
+        return activityService.createActivity(payload);
+    }
+
+    @Benchmark
+    public Response createActivityFromTemplate() {
+        return activityService.createActivity(templatePayload);
+    }
+
+    @Benchmark
+    public Response fetchActivityById() {
+        return activityService.fetchActivityById(1);
+    }
+}
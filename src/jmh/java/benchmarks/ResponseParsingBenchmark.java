@@ -0,0 +1,95 @@
+package benchmarks;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ActivityStreamScanner;
+import utils.ResponseValidator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON handling in response validation: the per-field response.jsonPath() assertions
+ * in ResponseValidator against the parse-once ValidationContext, and counting a
+ * collection with the streaming scanner.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseParsingBenchmark {
+
+    @Param({"30"})
+    public int collectionSize;
+
+    private Response activity;
+    private Response collection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        activity = jsonResponse(activityJson(1));
+        StringBuilder body = new StringBuilder("[");
+        for (int id = 1; id <= collectionSize; id++) {
+            body.append(id > 1 ? "," : "").append(activityJson(id));
+        }
+        collection = jsonResponse(body.append(']').toString());
+    }
+
+    @Benchmark
+    public Response validatorPerFieldJsonPath() {
+        ResponseValidator.assertStatusCode(activity, 200);
+        ResponseValidator.assertFieldEquals(activity, "id", 1);
+        ResponseValidator.assertFieldNotNull(activity, "title");
+        ResponseValidator.assertFieldNotNull(activity, "dueDate");
+        ResponseValidator.assertFieldNotNull(activity, "completed");
+        return activity;
+    }
+
+    @Benchmark
+    public Object validationContextParseOnce() {
+        return ResponseValidator.validate(activity)
+                .statusCode(200)
+                .fieldEquals("id", 1)
+                .fieldNotNull("title")
+                .fieldNotNull("dueDate")
+                .fieldPresent("completed")
+                .verify();
+    }
+
+    @Benchmark
+    public Response validatorNonEmptyList() {
+        ResponseValidator.assertNonEmptyList(collection);
+        return collection;
+    }
+
+    @Benchmark
+    public ActivityStreamScanner.Summary scannerCountCollection() {
+        return new ActivityStreamScanner(0).scan(collection.asByteArray());
+    }
+
+    private static String activityJson(int id) {
+        return "{\"id\":" + id + ",\"title\":\"Activity " + id + "\",\"dueDate\":\"2026-01-01T00:00:00Z\","
+                + "\"completed\":" + (id % 2 == 0) + "}";
+    }
+
+    private static Response jsonResponse(String body) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+}
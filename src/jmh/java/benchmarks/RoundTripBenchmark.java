@@ -0,0 +1,66 @@
+package benchmarks;
+
+import base.HttpConnectionPool;
+import data.RequestDataFactory;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ActivityService;
+import stub.ActivityStubServer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full ActivityService round trip against the in-process stub on loopback with no
+ * injected latency, through the shared keep-alive pool. Since the stub answers
+ * immediately, this is close to the floor that every response.getTime() in the suites
+ * includes; compare with RequestConstructionBenchmark to see the client's share.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dlog.sampleEvery=1000000", "-Dlog4j2.configurationFile=log4j2-perf.xml"})
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+    private ActivityStubServer stub;
+    private ActivityService activityService;
+    private byte[] templatePayload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stub = new ActivityStubServer(new ActivityStubServer.Profile()).start();
+        RestAssured.baseURI = stub.getBaseUrl();
+        HttpConnectionPool.install();
+        activityService = new ActivityService(false);
+        templatePayload = new RequestDataFactory().buildNewActivityPayloadBytes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HttpConnectionPool.shutdown();
+        stub.stop();
+    }
+
+    @Benchmark
+    public Response fetchActivityById() {
+        return activityService.fetchActivityById(1);
+    }
+
+    @Benchmark
+    public Response createActivityFromTemplate() {
+        return activityService.createActivity(templatePayload);
+    }
+}
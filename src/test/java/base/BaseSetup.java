@@ -1,7 +1,6 @@
 package base;
 
 import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import io.restassured.RestAssured;
@@ -9,22 +8,62 @@ import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.specification.RequestSpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeSuite;
+import services.ClientMetrics;
+import services.Resilience;
+import services.ResponseCache;
+import services.TrafficCapture;
+import stub.ActivityStubServer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class BaseSetup {
 
-    protected static ExtentReports reportManager;
-    protected static ExtentTest report;
+    private static ExtentReports reportManager;
+    private static ReportJournal reportJournal;
+    // One report handle per test thread, so methods and classes can run in parallel
+    private static final ThreadLocal<TestReport> currentReport = new ThreadLocal<>();
     protected static final Logger log = LogManager.getLogger(BaseSetup.class);
     protected static RequestSpecification baseRequestSpec;
 
     private static final String BASE_URL = "https://fakerestapi.azurewebsites.net";
     private static final String REPORT_OUTPUT = "reports/TestExecutionReport.html";
+    private static final String JOURNAL_OUTPUT = "reports/TestExecutionReport.jsonl";
+
+    // Every run appends to the journal as it goes; with -Dreport.streaming=true ExtentReports
+    // is skipped and the HTML is rendered from the journal, so report memory stays flat
+    private static final boolean REPORT_STREAMING = Boolean.getBoolean("report.streaming");
+
+    // "live" targets BASE_URL; "stub" starts the in-process ActivityStubServer (-Dapi.target=stub)
+    private static final String API_TARGET = System.getProperty("api.target", "live");
+    private static ActivityStubServer stubServer;
+    // -Dtraffic.capture=path records every REST Assured exchange of the run for replay
+    private static final String TRAFFIC_CAPTURE = System.getProperty("traffic.capture");
+    private static boolean restAssuredConfigured;
 
     @BeforeSuite
     public void initializeReporting() {
+        Map<String, String> systemInfo = new LinkedHashMap<>();
+        systemInfo.put("Tester", "Ifiok-obong Robertson Akpan");
+        systemInfo.put("Project", "Public API Test Automation");
+        systemInfo.put("Environment", isStubTarget() ? "Local Stub" : "Production");
+        systemInfo.put("Java Version", System.getProperty("java.version"));
+
+        reportJournal = new ReportJournal(Path.of(JOURNAL_OUTPUT), systemInfo);
+        if (REPORT_STREAMING) {
+            log.info("Streaming report journal opened at: {}", JOURNAL_OUTPUT);
+            return;
+        }
+
         ExtentSparkReporter sparkReporter = new ExtentSparkReporter(REPORT_OUTPUT);
         sparkReporter.config().setTheme(Theme.STANDARD);
         sparkReporter.config().setDocumentTitle("Public API - Test Execution Report");
@@ -32,31 +71,151 @@ public class BaseSetup {
 
         reportManager = new ExtentReports();
         reportManager.attachReporter(sparkReporter);
-        reportManager.setSystemInfo("Tester", "Ifiok-obong Robertson Akpan");
-        reportManager.setSystemInfo("Project", "Public API Test Automation");
-        reportManager.setSystemInfo("Environment", "Production");
-        reportManager.setSystemInfo("Java Version", System.getProperty("java.version"));
+        systemInfo.forEach(reportManager::setSystemInfo);
 
         log.info("ExtentReports initialized successfully");
     }
 
+    /**
+     * Starts the report entry for the calling test method and tags this thread's log
+     * lines with the test name.
+     */
+    protected static TestReport startTest(String testName) {
+        TestReport testReport = createReport(testName);
+        currentReport.set(testReport);
+        ThreadContext.put("test", testName);
+        return testReport;
+    }
+
+    private static TestReport createReport(String name) {
+        synchronized (reportJournal) {
+            return new TestReport(reportJournal, reportJournal.startTest(name),
+                    reportManager == null ? null : reportManager.createTest(name));
+        }
+    }
+
+    /**
+     * Report handle of the test method running on this thread.
+     */
+    protected static TestReport report() {
+        TestReport testReport = currentReport.get();
+        if (testReport == null) {
+            throw new IllegalStateException("No report started on " + Thread.currentThread().getName()
+                    + "; call startTest() from the test method first");
+        }
+        return testReport;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void finishTest(ITestResult result) {
+        TestReport testReport = currentReport.get();
+        if (testReport != null) {
+            if (result.getStatus() == ITestResult.FAILURE) {
+                testReport.fail("Test failed: " + result.getThrowable());
+            }
+            testReport.end();
+        }
+        currentReport.remove();
+        ThreadContext.remove("test");
+    }
+
+    /**
+     * Configures REST Assured and the shared connection pool once per JVM; later
+     * calls from other test classes reuse the same settings and connections.
+     */
     @BeforeClass
     public void configureRestAssured() {
-        RestAssured.baseURI = BASE_URL;
+        synchronized (BaseSetup.class) {
+            if (restAssuredConfigured) {
+                return;
+            }
+            RestAssured.baseURI = resolveBaseUrl();
+            HttpConnectionPool.install();
+            if (TRAFFIC_CAPTURE != null && !TrafficCapture.isCapturing()) {
+                TrafficCapture.start(Path.of(TRAFFIC_CAPTURE));
+            }
+            ClientMetrics.shared().startExportFromSystemProperties();
 
-        baseRequestSpec = new RequestSpecBuilder()
-                .setContentType("application/json")
-                .setAccept("application/json")
-                .build();
+            baseRequestSpec = new RequestSpecBuilder()
+                    .setContentType("application/json")
+                    .setAccept("application/json")
+                    .build();
 
-        log.info("REST Assured configured with base URI: {}", BASE_URL);
+            restAssuredConfigured = true;
+            log.info("REST Assured configured with base URI: {}", RestAssured.baseURI);
+        }
+    }
+
+    protected static boolean isStubTarget() {
+        return "stub".equalsIgnoreCase(API_TARGET);
+    }
+
+    /**
+     * Base URL for the selected target, starting the shared stub server on first use.
+     */
+    protected static synchronized String resolveBaseUrl() {
+        if (!isStubTarget()) {
+            return BASE_URL;
+        }
+        if (stubServer == null) {
+            stubServer = new ActivityStubServer(ActivityStubServer.Profile.fromSystemProperties()).start();
+        }
+        return stubServer.getBaseUrl();
     }
 
     @AfterSuite
     public void finalizeReporting() {
+        if (reportJournal == null) {
+            return;
+        }
+        reportClientStatistics();
+        reportJournal.close();
         if (reportManager != null) {
             reportManager.flush();
-            log.info("Test report generated at: {}", REPORT_OUTPUT);
+        } else {
+            ReportRenderer.render(reportJournal.getPath(), Path.of(REPORT_OUTPUT));
+        }
+        log.info("Test report generated at: {} ({}), journal at: {}", REPORT_OUTPUT, reportJournal.summary(),
+                JOURNAL_OUTPUT);
+        if (ResponseCache.shared().isEnabled()) {
+            log.info("Response cache: {}", ResponseCache.shared().summary());
+        }
+        Resilience.shared().summaries().forEach(line -> log.info("Resilience - {}", line));
+    }
+
+    /**
+     * Closes the report with one entry of run-wide client statistics: response cache hit
+     * rates and resilience counters. Left out when neither feature is enabled.
+     */
+    private static void reportClientStatistics() {
+        List<String> lines = new ArrayList<>();
+        if (ResponseCache.shared().isEnabled()) {
+            lines.add("Response cache: " + ResponseCache.shared().summary());
+        }
+        if (Resilience.shared().isEnabled()) {
+            Resilience.shared().summaries().forEach(line -> lines.add("Resilience - " + line));
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        TestReport statistics = createReport("Run Summary: Client Statistics");
+        lines.forEach(statistics::info);
+        statistics.end();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void releaseSharedResources() {
+        synchronized (BaseSetup.class) {
+            HttpConnectionPool.shutdown();
+            if (TRAFFIC_CAPTURE != null) {
+                TrafficCapture.stop();
+            }
+            ClientMetrics.shared().stopExport();
+            restAssuredConfigured = false;
+            if (stubServer != null) {
+                stubServer.stop();
+                stubServer = null;
+            }
         }
     }
 }
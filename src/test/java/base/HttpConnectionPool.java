@@ -0,0 +1,473 @@
+package base;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.response.Response;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpInetSocketAddress;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import perf.ConnectionPhases;
+import perf.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * JVM-wide pooled, keep-alive HTTP connection layer for REST Assured.
+ *
+ * By default REST Assured builds a new HttpClient, and therefore a new TCP/TLS
+ * connection, for every request. {@link #install()} replaces that with one shared
+ * client backed by a bounded connection pool with keep-alive, idle eviction and
+ * explicit timeouts, and records how often a request found a warm connection
+ * (hit) versus had to open one (miss) and how long it waited for the pool. The
+ * DNS resolver, socket factories and request executor also report each request's
+ * connection phases to {@link ConnectionPhases}.
+ *
+ * Tuned with -Dhttp.pool.* properties; -Dhttp.pool.enabled=false restores
+ * REST Assured's per-request clients. Virtual-thread users share the same pool, which
+ * bounds their in-flight requests; waiting for a lease parks on the pool's lock rather
+ * than pinning the carrier.
+ */
+@SuppressWarnings("deprecation") // REST Assured 5 still drives the HttpClient 4.x classic API
+public final class HttpConnectionPool {
+
+    private static final Logger log = LogManager.getLogger(HttpConnectionPool.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("http.pool.enabled", "true"));
+    private static final int MAX_TOTAL = Integer.getInteger("http.pool.maxTotal", 200);
+    private static final int MAX_PER_ROUTE = Integer.getInteger("http.pool.maxPerRoute", 100);
+    private static final long KEEP_ALIVE_MS = Long.getLong("http.pool.keepAliveMs", 30_000);
+    private static final long IDLE_EVICT_MS = Long.getLong("http.pool.idleEvictMs", 15_000);
+    private static final int ACQUIRE_TIMEOUT_MS = Integer.getInteger("http.pool.acquireTimeoutMs", 10_000);
+    private static final int CONNECT_TIMEOUT_MS = Integer.getInteger("http.connectTimeoutMs", 10_000);
+    private static final int READ_TIMEOUT_MS = Integer.getInteger("http.readTimeoutMs", 30_000);
+
+    private static HttpConnectionPool instance;
+    private static RestAssuredConfig previousConfig;
+    private static boolean bufferingFilterInstalled;
+    // Set while a caller reads the body itself, see streaming(Supplier)
+    private static final ThreadLocal<Boolean> STREAMING = ThreadLocal.withInitial(() -> false);
+
+    private final PoolingClientConnectionManager pool;
+    private final ScheduledExecutorService evictor;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LatencyHistogram acquireWait = new LatencyHistogram();
+
+    private HttpConnectionPool() {
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80, new TimedSocketFactory()));
+        schemes.register(new Scheme("https", 443, new TimedTlsSocketFactory(SSLSocketFactory.getSocketFactory())));
+        pool = new PoolingClientConnectionManager(schemes, KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, TIMED_DNS) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+                return new TlsTimingOperator(registry);
+            }
+        };
+        pool.setMaxTotal(MAX_TOTAL);
+        pool.setDefaultMaxPerRoute(MAX_PER_ROUTE);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            pool.closeExpiredConnections();
+            pool.closeIdleConnections(IDLE_EVICT_MS, TimeUnit.MILLISECONDS);
+        }, IDLE_EVICT_MS, IDLE_EVICT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Installs the shared pool into REST Assured's global config. Safe to call from
+     * every test class; only the first call after startup or {@link #shutdown()} has
+     * any effect.
+     */
+    public static synchronized void install() {
+        if (!ENABLED || instance != null) {
+            return;
+        }
+        instance = new HttpConnectionPool();
+        previousConfig = RestAssured.config;
+        RestAssured.config = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, CONNECT_TIMEOUT_MS)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, READ_TIMEOUT_MS)
+                .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, (long) ACQUIRE_TIMEOUT_MS)
+                .httpClientFactory(instance::createClient)
+                .reuseHttpClientInstance());
+        // REST Assured reads bodies lazily and holds the pooled connection until then, so a
+        // status-only check would leak it; buffering the body returns it straight away.
+        // Global filters outlive shutdown(), so this one is added once per JVM.
+        if (!bufferingFilterInstalled) {
+            RestAssured.filters((request, response, context) -> {
+                Response result = context.next(request, response);
+                if (!STREAMING.get()) {
+                    result.asByteArray();
+                }
+                return result;
+            });
+            bufferingFilterInstalled = true;
+        }
+        log.info("HTTP connection pool installed: maxTotal={}, maxPerRoute={}, keepAlive={}ms, idleEvict={}ms, "
+                        + "connectTimeout={}ms, readTimeout={}ms", MAX_TOTAL, MAX_PER_ROUTE, KEEP_ALIVE_MS,
+                IDLE_EVICT_MS, CONNECT_TIMEOUT_MS, READ_TIMEOUT_MS);
+    }
+
+    /**
+     * The installed pool, or null when pooling is disabled or not yet installed.
+     */
+    public static synchronized HttpConnectionPool current() {
+        return instance;
+    }
+
+    /**
+     * Closes the pool and puts back the REST Assured config that was active before
+     * {@link #install()}, so later requests do not reach the closed pool.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            log.info("HTTP connection pool final stats: {}", instance.summary());
+            RestAssured.config = previousConfig;
+            previousConfig = null;
+            instance.evictor.shutdownNow();
+            instance.pool.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Runs a REST Assured call whose body the caller reads incrementally (e.g. via
+     * {@code asInputStream()}) instead of having it buffered. The caller must read the
+     * body to the end or close it, otherwise the pooled connection is never released.
+     */
+    public static <T> T streaming(Supplier<T> call) {
+        STREAMING.set(true);
+        try {
+            return call.get();
+        } finally {
+            STREAMING.set(false);
+        }
+    }
+
+    private DefaultHttpClient createClient() {
+        HttpParams params = new BasicHttpParams();
+        params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, CONNECT_TIMEOUT_MS);
+        params.setIntParameter(CoreConnectionPNames.SO_TIMEOUT, READ_TIMEOUT_MS);
+        params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, ACQUIRE_TIMEOUT_MS);
+        params.setBooleanParameter(CoreConnectionPNames.TCP_NODELAY, true);
+
+        DefaultHttpClient client = new DefaultHttpClient(new MeteredConnectionManager(), params) {
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return new TimedRequestExecutor();
+            }
+        };
+        client.setKeepAliveStrategy(keepAliveStrategy());
+        // An empty body is never read to EOF, so drop it and let the client release the connection now
+        client.addResponseInterceptor((response, context) -> {
+            if (response.getEntity() != null && response.getEntity().getContentLength() == 0) {
+                response.setEntity(null);
+            }
+        });
+        return client;
+    }
+
+    /**
+     * Honours the server's Keep-Alive timeout when it sends one, otherwise keeps
+     * connections for the configured default instead of indefinitely.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (response, context) -> {
+            BasicHeaderElementIterator elements =
+                    new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (elements.hasNext()) {
+                HeaderElement element = elements.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Long.parseLong(element.getValue()) * 1000;
+                    } catch (NumberFormatException ignored) {
+                        // fall through to the default
+                    }
+                }
+            }
+            return KEEP_ALIVE_MS;
+        };
+    }
+
+    // --- Statistics ---
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatePercent() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0 : (double) getHits() / total * 100;
+    }
+
+    public LatencyHistogram getAcquireWait() {
+        return acquireWait;
+    }
+
+    public PoolStats getPoolStats() {
+        return pool.getTotalStats();
+    }
+
+    public String summary() {
+        PoolStats stats = getPoolStats();
+        return String.format("hits=%d misses=%d (hit rate %.1f%%) | leased=%d available=%d pending=%d max=%d "
+                        + "| acquire wait p50=%.3fms p99=%.3fms max=%.3fms",
+                getHits(), getMisses(), getHitRatePercent(), stats.getLeased(), stats.getAvailable(),
+                stats.getPending(), stats.getMax(), acquireWait.percentileMillis(50),
+                acquireWait.percentileMillis(99), acquireWait.getMaxMicros() / 1_000.0);
+    }
+
+    /**
+     * Delegates to the pool, timing each lease and noting whether it handed back an
+     * already-open (warm) connection.
+     */
+    private class MeteredConnectionManager implements ClientConnectionManager {
+
+        @Override
+        public SchemeRegistry getSchemeRegistry() {
+            return pool.getSchemeRegistry();
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ClientConnectionRequest request = pool.requestConnection(route, state);
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    ManagedClientConnection connection = request.getConnection(timeout, unit);
+                    long waitNanos = System.nanoTime() - start;
+                    acquireWait.recordNanos(waitNanos);
+                    ConnectionPhases.record(ConnectionPhases.Phase.POOL_WAIT, waitNanos);
+                    ConnectionPhases.connectionLeased(connection.isOpen());
+                    if (connection.isOpen()) {
+                        hits.increment();
+                    } else {
+                        misses.increment();
+                    }
+                    return connection;
+                }
+
+                @Override
+                public void abortRequest() {
+                    request.abortRequest();
+                }
+            };
+        }
+
+        @Override
+        public void releaseConnection(ManagedClientConnection connection, long validDuration, TimeUnit unit) {
+            pool.releaseConnection(connection, validDuration, unit);
+        }
+
+        @Override
+        public void closeIdleConnections(long idleTime, TimeUnit unit) {
+            pool.closeIdleConnections(idleTime, unit);
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+            pool.closeExpiredConnections();
+        }
+
+        @Override
+        public void shutdown() {
+            // The pool outlives individual clients; it is closed by HttpConnectionPool.shutdown()
+        }
+    }
+
+    // --- Connection phase hooks ---
+
+    private static final DnsResolver TIMED_DNS = new TimedDnsResolver();
+
+    /**
+     * Opens connections like the default operator, first putting the TLS timing back if
+     * the https scheme was replaced. REST Assured registers its own https socket factory
+     * on the shared registry for every request whose config carries an SSLConfig
+     * (relaxedHTTPSValidation, key or trust stores); that factory connects and handshakes
+     * in one call, so without re-wrapping neither phase would be recorded.
+     */
+    private static final class TlsTimingOperator extends DefaultClientConnectionOperator {
+
+        TlsTimingOperator(SchemeRegistry registry) {
+            super(registry, TIMED_DNS);
+        }
+
+        @Override
+        public void openConnection(OperatedClientConnection connection, HttpHost target, InetAddress local,
+                                   HttpContext context, HttpParams params) throws IOException {
+            Scheme https = schemeRegistry.get("https");
+            if (https != null && !(https.getSchemeSocketFactory() instanceof TimedSocketFactory)
+                    && https.getSchemeSocketFactory() instanceof SchemeLayeredSocketFactory tls) {
+                schemeRegistry.register(new Scheme("https", https.getDefaultPort(), new TimedTlsSocketFactory(tls)));
+            }
+            super.openConnection(connection, target, local, context, params);
+        }
+    }
+
+    private static final class TimedDnsResolver implements DnsResolver {
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            long start = System.nanoTime();
+            try {
+                return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+            } finally {
+                ConnectionPhases.record(ConnectionPhases.Phase.DNS, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Plain TCP sockets, timing the connect.
+     */
+    private static class TimedSocketFactory implements SchemeSocketFactory {
+
+        private final PlainSocketFactory plain = PlainSocketFactory.getSocketFactory();
+
+        @Override
+        public Socket createSocket(HttpParams params) {
+            return plain.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, ConnectTimeoutException {
+            long start = System.nanoTime();
+            try {
+                return plain.connectSocket(socket, remoteAddress, localAddress, params);
+            } finally {
+                ConnectionPhases.record(ConnectionPhases.Phase.CONNECT, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return false;
+        }
+    }
+
+    /**
+     * Connects the TCP socket and then layers TLS over it as a separate step, so the
+     * connect and the handshake are timed apart; SSLSocketFactory would do both in one call.
+     */
+    private static final class TimedTlsSocketFactory extends TimedSocketFactory
+            implements SchemeLayeredSocketFactory {
+
+        private final SchemeLayeredSocketFactory tls;
+
+        TimedTlsSocketFactory(SchemeLayeredSocketFactory tls) {
+            this.tls = tls;
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, ConnectTimeoutException {
+            Socket connected = super.connectSocket(socket, remoteAddress, localAddress, params);
+            String host = remoteAddress instanceof HttpInetSocketAddress address
+                    ? address.getHttpHost().getHostName()
+                    : remoteAddress.getHostName();
+            return createLayeredSocket(connected, host, remoteAddress.getPort(), params);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params)
+                throws IOException {
+            long start = System.nanoTime();
+            try {
+                return tls.createLayeredSocket(socket, target, port, params);
+            } finally {
+                ConnectionPhases.record(ConnectionPhases.Phase.TLS, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return tls.isSecure(socket);
+        }
+    }
+
+    /**
+     * Times writing the request, and the wait from then until the response headers
+     * are read (time to first byte).
+     */
+    private static final class TimedRequestExecutor extends HttpRequestExecutor {
+
+        @Override
+        protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection connection,
+                                             HttpContext context) throws IOException, HttpException {
+            long start = System.nanoTime();
+            try {
+                return super.doSendRequest(request, connection, context);
+            } finally {
+                ConnectionPhases.record(ConnectionPhases.Phase.SEND, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection connection,
+                                                 HttpContext context) throws IOException, HttpException {
+            long start = System.nanoTime();
+            try {
+                return super.doReceiveResponse(request, connection, context);
+            } finally {
+                ConnectionPhases.record(ConnectionPhases.Phase.TTFB, System.nanoTime() - start);
+                ConnectionPhases.headersReceived();
+            }
+        }
+    }
+}
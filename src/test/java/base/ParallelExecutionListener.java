@@ -0,0 +1,80 @@
+package base;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Switches testNG.xml between serial and parallel execution from the command line.
+ *
+ * -Dtest.parallel=classes runs the suite classes (one per &lt;test&gt;) concurrently;
+ * -Dtest.parallel=methods also runs the methods inside each class concurrently.
+ * -Dtest.threads sets the thread count for both levels (default 4). A &lt;test&gt; with
+ * the parameter parallel.methods=false keeps its methods serial, for suites whose
+ * measurements need the methods to run one at a time. A &lt;test&gt; with
+ * parallel.exclusive=true also waits until no other &lt;test&gt; is running and holds
+ * the others back until it finishes, so its timings never overlap other traffic.
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener, ITestListener {
+
+    private static final Logger log = LogManager.getLogger(ParallelExecutionListener.class);
+
+    private static final String MODE = System.getProperty("test.parallel", "none");
+    private static final int THREADS = Integer.getInteger("test.threads", 4);
+
+    // Every running <test> holds one permit and an exclusive one holds them all; fair so
+    // an exclusive <test> is not starved by the shared ones that keep starting
+    private static final Semaphore RUNNING = new Semaphore(Integer.MAX_VALUE, true);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!isParallel()) {
+            return;
+        }
+        boolean methods = "methods".equalsIgnoreCase(MODE);
+        for (XmlSuite suite : suites) {
+            suite.setParallel(XmlSuite.ParallelMode.TESTS);
+            suite.setThreadCount(THREADS);
+            for (XmlTest test : suite.getTests()) {
+                boolean serialMethods = "false".equalsIgnoreCase(test.getParameter("parallel.methods"));
+                if (methods && !serialMethods) {
+                    test.setParallel(XmlSuite.ParallelMode.METHODS);
+                    test.setThreadCount(THREADS);
+                } else {
+                    test.setParallel(XmlSuite.ParallelMode.NONE);
+                }
+            }
+            log.info("Suite '{}' running in parallel: mode={}, threads={}", suite.getName(), MODE, THREADS);
+        }
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        if (isParallel()) {
+            RUNNING.acquireUninterruptibly(permits(context));
+        }
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        if (isParallel()) {
+            RUNNING.release(permits(context));
+        }
+    }
+
+    private static boolean isParallel() {
+        return "methods".equalsIgnoreCase(MODE) || "classes".equalsIgnoreCase(MODE);
+    }
+
+    private static int permits(ITestContext context) {
+        boolean exclusive = "true".equalsIgnoreCase(context.getCurrentXmlTest().getParameter("parallel.exclusive"));
+        return exclusive ? Integer.MAX_VALUE : 1;
+    }
+}
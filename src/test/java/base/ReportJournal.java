@@ -0,0 +1,157 @@
+package base;
+
+import com.aventstack.extentreports.Status;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only, one-JSON-object-per-line record of a test run.
+ *
+ * Every test start, log entry and test end is written as it happens, and the file is
+ * flushed whenever a test ends, so a crashed or killed run still leaves everything up
+ * to its last finished test on disk. Only the per-status test counts are kept in
+ * memory. {@link ReportRenderer} turns the journal into HTML afterwards.
+ *
+ * <pre>
+ * {"event":"run","time":1760000000000,"info":{"Tester":"..."}}
+ * {"event":"start","test":1,"name":"Smoke: API Health Check","time":...}
+ * {"event":"log","test":1,"status":"INFO","details":"...","time":...}
+ * {"event":"end","test":1,"status":"PASS","time":...}
+ * </pre>
+ */
+public final class ReportJournal implements AutoCloseable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Path path;
+    private final Writer writer;
+    private final AtomicInteger nextTestId = new AtomicInteger();
+    private final Map<Status, AtomicInteger> testsByStatus = new EnumMap<>(Status.class);
+
+    public ReportJournal(Path path, Map<String, String> systemInfo) {
+        this.path = path;
+        for (Status status : Status.values()) {
+            testsByStatus.put(status, new AtomicInteger());
+        }
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open report journal " + path, e);
+        }
+        write(generator -> {
+            generator.writeStringField("event", "run");
+            generator.writeNumberField("time", System.currentTimeMillis());
+            generator.writeObjectFieldStart("info");
+            for (Map.Entry<String, String> entry : systemInfo.entrySet()) {
+                generator.writeStringField(entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+        });
+        flush();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Records a test start and returns the id its later entries refer to.
+     */
+    public int startTest(String name) {
+        int testId = nextTestId.incrementAndGet();
+        synchronized (this) {
+            write(generator -> {
+                generator.writeStringField("event", "start");
+                generator.writeNumberField("test", testId);
+                generator.writeStringField("name", name);
+                generator.writeNumberField("time", System.currentTimeMillis());
+            });
+        }
+        return testId;
+    }
+
+    public synchronized void log(int testId, Status status, String details) {
+        write(generator -> {
+            generator.writeStringField("event", "log");
+            generator.writeNumberField("test", testId);
+            generator.writeStringField("status", status.name());
+            generator.writeStringField("details", details);
+            generator.writeNumberField("time", System.currentTimeMillis());
+        });
+    }
+
+    public synchronized void endTest(int testId, Status status) {
+        testsByStatus.get(status).incrementAndGet();
+        write(generator -> {
+            generator.writeStringField("event", "end");
+            generator.writeNumberField("test", testId);
+            generator.writeStringField("status", status.name());
+            generator.writeNumberField("time", System.currentTimeMillis());
+        });
+        flush();
+    }
+
+    public int getTestCount(Status status) {
+        return testsByStatus.get(status).get();
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<Status, AtomicInteger> entry : testsByStatus.entrySet()) {
+            if (entry.getValue().get() > 0) {
+                summary.append(summary.isEmpty() ? "" : ", ").append(entry.getKey()).append('=').append(entry.getValue());
+            }
+        }
+        return nextTestId.get() + " tests (" + summary + ")";
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close report journal " + path, e);
+        }
+    }
+
+    private interface Fields {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private void write(Fields fields) {
+        try {
+            // The generator must neither close nor flush the shared writer; one object per line
+            JsonGenerator generator = JSON.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.writeStartObject();
+            fields.write(generator);
+            generator.writeEndObject();
+            generator.close();
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to report journal " + path, e);
+        }
+    }
+
+    private void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not flush report journal " + path, e);
+        }
+    }
+}
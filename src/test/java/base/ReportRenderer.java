@@ -0,0 +1,252 @@
+package base;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders a {@link ReportJournal} file into a standalone HTML report.
+ *
+ * The journal is read twice, line by line: once for the run summary and once to write
+ * each test as soon as its end entry is seen. Only tests that are still open at that
+ * point of the journal are held in memory, so rendering stays flat however many tests
+ * the run had. Tests that never ended (a crashed run) are listed as INCOMPLETE.
+ *
+ * Can also be run on its own to render the journal a crashed run left behind:
+ * {@code java base.ReportRenderer reports/TestExecutionReport.jsonl reports/TestExecutionReport.html}
+ */
+public final class ReportRenderer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final String INCOMPLETE = "INCOMPLETE";
+
+    private ReportRenderer() {
+    }
+
+    public static void main(String[] args) {
+        Path journal = Path.of(args.length > 0 ? args[0] : "reports/TestExecutionReport.jsonl");
+        Path html = Path.of(args.length > 1 ? args[1] : "reports/TestExecutionReport.html");
+        render(journal, html);
+        System.out.println("Rendered " + journal + " to " + html);
+    }
+
+    public static void render(Path journal, Path html) {
+        try {
+            RunSummary summary = summarize(journal);
+            try (Writer out = Files.newBufferedWriter(html, StandardCharsets.UTF_8)) {
+                writeHeader(out, summary);
+                writeTests(out, journal);
+                out.write("</main>\n</body>\n</html>\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not render " + journal + " to " + html, e);
+        }
+    }
+
+    // --- First pass: run summary ---
+
+    private static final class RunSummary {
+        final Map<String, String> info = new LinkedHashMap<>();
+        final Map<String, Integer> testsByStatus = new LinkedHashMap<>();
+        long startTime;
+        long endTime;
+        int started;
+        int ended;
+    }
+
+    private static RunSummary summarize(Path journal) throws IOException {
+        RunSummary summary = new RunSummary();
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode entry = parse(line);
+                if (entry == null) {
+                    continue;
+                }
+                long time = entry.path("time").asLong();
+                summary.startTime = summary.startTime == 0 ? time : Math.min(summary.startTime, time);
+                summary.endTime = Math.max(summary.endTime, time);
+                switch (entry.path("event").asText()) {
+                    case "run" -> entry.path("info").fields()
+                            .forEachRemaining(field -> summary.info.put(field.getKey(), field.getValue().asText()));
+                    case "start" -> summary.started++;
+                    case "end" -> {
+                        summary.ended++;
+                        summary.testsByStatus.merge(entry.path("status").asText(), 1, Integer::sum);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (summary.started > summary.ended) {
+            summary.testsByStatus.put(INCOMPLETE, summary.started - summary.ended);
+        }
+        return summary;
+    }
+
+    // --- Second pass: tests ---
+
+    private record LogLine(String status, String details, long time) {
+    }
+
+    private static final class OpenTest {
+        final String name;
+        final long startTime;
+        final List<LogLine> lines = new ArrayList<>();
+
+        OpenTest(String name, long startTime) {
+            this.name = name;
+            this.startTime = startTime;
+        }
+    }
+
+    private static void writeTests(Writer out, Path journal) throws IOException {
+        Map<Integer, OpenTest> open = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode entry = parse(line);
+                if (entry == null) {
+                    continue;
+                }
+                int testId = entry.path("test").asInt();
+                long time = entry.path("time").asLong();
+                switch (entry.path("event").asText()) {
+                    case "start" -> open.put(testId, new OpenTest(entry.path("name").asText(), time));
+                    case "log" -> {
+                        OpenTest test = open.get(testId);
+                        if (test != null) {
+                            test.lines.add(new LogLine(entry.path("status").asText(),
+                                    entry.path("details").asText(), time));
+                        }
+                    }
+                    case "end" -> {
+                        OpenTest test = open.remove(testId);
+                        if (test != null) {
+                            writeTest(out, test, entry.path("status").asText(), time);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        for (OpenTest test : open.values()) {
+            long lastTime = test.lines.isEmpty() ? test.startTime : test.lines.get(test.lines.size() - 1).time();
+            writeTest(out, test, INCOMPLETE, lastTime);
+        }
+    }
+
+    /**
+     * A line cut short by a crash is skipped rather than failing the whole report.
+     */
+    private static JsonNode parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return MAPPER.readTree(line);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // --- HTML ---
+
+    private static void writeHeader(Writer out, RunSummary summary) throws IOException {
+        out.write("""
+                <!DOCTYPE html>
+                <html lang="en">
+                <head>
+                <meta charset="UTF-8">
+                <title>Public API - Test Execution Report</title>
+                <style>
+                body { font-family: -apple-system, Segoe UI, Roboto, sans-serif; margin: 0; background: #f5f6f8; color: #222; }
+                header { background: #2f3b52; color: #fff; padding: 16px 24px; }
+                main { padding: 16px 24px; }
+                table { border-collapse: collapse; margin-bottom: 16px; background: #fff; }
+                td, th { border: 1px solid #dde1e6; padding: 4px 10px; text-align: left; vertical-align: top; }
+                details { background: #fff; border: 1px solid #dde1e6; margin-bottom: 6px; padding: 6px 10px; }
+                summary { cursor: pointer; }
+                .status { display: inline-block; min-width: 84px; font-weight: bold; }
+                .PASS { color: #2e7d32; } .FAIL { color: #c62828; } .WARNING { color: #ef6c00; }
+                .SKIP { color: #6d6d6d; } .INFO { color: #1565c0; } .INCOMPLETE { color: #6a1b9a; }
+                .time { color: #777; font-size: 0.9em; }
+                </style>
+                </head>
+                <body>
+                <header><h2>Automated API Test Results</h2></header>
+                <main>
+                """);
+        out.write("<h3>Summary</h3>\n<table>\n");
+        row(out, "Tests", String.valueOf(summary.started));
+        for (Map.Entry<String, Integer> entry : summary.testsByStatus.entrySet()) {
+            out.write("<tr><td class=\"" + escape(entry.getKey()) + "\">" + escape(entry.getKey()) + "</td><td>"
+                    + entry.getValue() + "</td></tr>\n");
+        }
+        if (summary.startTime > 0) {
+            row(out, "Started", TIME_FORMAT.format(Instant.ofEpochMilli(summary.startTime)));
+            row(out, "Duration", String.format("%.1fs", (summary.endTime - summary.startTime) / 1000.0));
+        }
+        out.write("</table>\n");
+
+        if (!summary.info.isEmpty()) {
+            out.write("<h3>System Information</h3>\n<table>\n");
+            for (Map.Entry<String, String> entry : summary.info.entrySet()) {
+                row(out, entry.getKey(), entry.getValue());
+            }
+            out.write("</table>\n");
+        }
+        out.write("<h3>Tests</h3>\n");
+    }
+
+    private static void writeTest(Writer out, OpenTest test, String status, long endTime) throws IOException {
+        out.write("<details" + ("FAIL".equals(status) || INCOMPLETE.equals(status) ? " open" : "") + "><summary>"
+                + "<span class=\"status " + escape(status) + "\">" + escape(status) + "</span> "
+                + escape(test.name) + " <span class=\"time\">"
+                + String.format("%.2fs", (endTime - test.startTime) / 1000.0) + "</span></summary>\n<table>\n");
+        for (LogLine line : test.lines) {
+            out.write("<tr><td class=\"time\">" + TIME_FORMAT.format(Instant.ofEpochMilli(line.time()))
+                    + "</td><td class=\"" + escape(line.status()) + "\">" + escape(line.status()) + "</td><td>"
+                    + escape(line.details()) + "</td></tr>\n");
+        }
+        out.write("</table></details>\n");
+    }
+
+    private static void row(Writer out, String name, String value) throws IOException {
+        out.write("<tr><td>" + escape(name) + "</td><td>" + escape(value) + "</td></tr>\n");
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                case '\n' -> escaped.append("<br>");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
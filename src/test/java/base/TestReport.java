@@ -0,0 +1,72 @@
+package base;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+/**
+ * Report handle for a single test method.
+ *
+ * Each running test method gets its own handle from {@link BaseSetup#startTest(String)},
+ * so parallel methods never write into each other's entries. Every entry is appended to
+ * the run's {@link ReportJournal} and, unless the run is in streaming mode, to the
+ * ExtentReports test as well. ExtentReports does not guard its shared run statistics,
+ * so writes are serialized on the journal, which also lets helper threads started by
+ * a test write to the handle it passed them.
+ */
+public final class TestReport {
+
+    private final ReportJournal journal;
+    private final int testId;
+    private final ExtentTest extentTest;
+    private Status status = Status.PASS;
+
+    TestReport(ReportJournal journal, int testId, ExtentTest extentTest) {
+        this.journal = journal;
+        this.testId = testId;
+        this.extentTest = extentTest;
+    }
+
+    public TestReport info(String details) {
+        return log(Status.INFO, details);
+    }
+
+    public TestReport pass(String details) {
+        return log(Status.PASS, details);
+    }
+
+    public TestReport warning(String details) {
+        return log(Status.WARNING, details);
+    }
+
+    public TestReport fail(String details) {
+        return log(Status.FAIL, details);
+    }
+
+    public TestReport skip(String details) {
+        return log(Status.SKIP, details);
+    }
+
+    /**
+     * Worst status logged so far; a test with only INFO entries counts as passed.
+     */
+    public Status getStatus() {
+        synchronized (journal) {
+            return status;
+        }
+    }
+
+    void end() {
+        journal.endTest(testId, status);
+    }
+
+    private TestReport log(Status entryStatus, String details) {
+        synchronized (journal) {
+            status = Status.max(status, entryStatus);
+            if (extentTest != null) {
+                extentTest.log(entryStatus, details);
+            }
+            journal.log(testId, entryStatus, details);
+        }
+        return this;
+    }
+}
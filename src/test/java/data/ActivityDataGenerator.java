@@ -0,0 +1,249 @@
+package data;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy, reproducible source of varied activity payloads for volume tests.
+ *
+ * Every field of payload i is derived only from the seed and i, the same way the stub
+ * server derives its latencies, so nothing is shared between elements. The stream's
+ * spliterator splits its index range in halves; parallel workers each generate their
+ * own part without coordination, and a payload comes out identical whether the
+ * stream runs sequentially, in parallel, or is read through {@link #payload(long)}.
+ * Only the element being generated is ever held in memory.
+ */
+public class ActivityDataGenerator {
+
+    private static final DateTimeFormatter ISO_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final OffsetDateTime DEFAULT_ORIGIN = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final String[] WORDS = {
+            "review", "deploy", "draft", "report", "plan", "sync", "audit", "update", "migrate", "release",
+            "design", "test", "budget", "invoice", "customer", "backlog", "sprint", "roadmap", "schema",
+            "onboarding", "security", "metrics", "dashboard", "incident", "retro", "vendor", "contract",
+            "training", "inventory", "forecast", "archive", "cleanup"
+    };
+    // Below this many elements a spliterator stops splitting; smaller tasks cost more than they save
+    private static final long MIN_SPLIT_SIZE = 256;
+
+    private static final long TITLE_LENGTH_SALT = 0x7171;
+    private static final long TITLE_WORD_SALT = 0x3c3c;
+    private static final long DUE_DATE_SALT = 0xd0e0;
+    private static final long COMPLETED_SALT = 0xc0de;
+
+    private long seed = 42L;
+    private Distribution titleLength = Distribution.parse("uniform:8:48");
+    private Distribution dueDateDays = Distribution.parse("uniform:-30:90");
+    private double completedRatio = 0.3;
+    private OffsetDateTime dueDateOrigin = DEFAULT_ORIGIN;
+
+    /**
+     * Reads overrides from -Ddata.gen.* system properties, e.g.
+     * -Ddata.gen.seed=7 -Ddata.gen.titleLength=normal:24:6 -Ddata.gen.dueDateDays=uniform:0:14
+     * -Ddata.gen.completedRatio=0.5
+     */
+    public static ActivityDataGenerator fromSystemProperties() {
+        ActivityDataGenerator generator = new ActivityDataGenerator();
+        generator.seed = Long.getLong("data.gen.seed", generator.seed);
+        generator.titleLength = Distribution.parse(System.getProperty("data.gen.titleLength", "uniform:8:48"));
+        generator.dueDateDays = Distribution.parse(System.getProperty("data.gen.dueDateDays", "uniform:-30:90"));
+        return generator.completedRatio(Double.parseDouble(System.getProperty("data.gen.completedRatio", "0.3")));
+    }
+
+    public ActivityDataGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Distribution of title lengths in characters; samples are clamped to 1..200.
+     */
+    public ActivityDataGenerator titleLength(Distribution titleLength) {
+        this.titleLength = titleLength;
+        return this;
+    }
+
+    /**
+     * Distribution of due dates in days from the origin; negative values are overdue.
+     */
+    public ActivityDataGenerator dueDateDays(Distribution dueDateDays, OffsetDateTime origin) {
+        this.dueDateDays = dueDateDays;
+        this.dueDateOrigin = origin;
+        return this;
+    }
+
+    public ActivityDataGenerator completedRatio(double completedRatio) {
+        if (completedRatio < 0 || completedRatio > 1) {
+            throw new IllegalArgumentException("completedRatio must be within [0, 1], was " + completedRatio);
+        }
+        this.completedRatio = completedRatio;
+        return this;
+    }
+
+    /**
+     * Payloads 0 until count, with ids 1..count, generated as the stream is consumed.
+     */
+    public Stream<Map<String, Object>> stream(long count) {
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("count must be within [0, " + Integer.MAX_VALUE + "], was " + count);
+        }
+        return StreamSupport.stream(new PayloadSpliterator(0, count), false);
+    }
+
+    /**
+     * The payload at a position of the stream, without generating the ones before it.
+     */
+    public Map<String, Object> payload(long index) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", Math.toIntExact(index + 1));
+        payload.put("title", title(index));
+        long dueDateSeconds = (long) (dueDateDays.sample(unitRandom(index, DUE_DATE_SALT),
+                unitRandom(index, DUE_DATE_SALT + 1)) * 86_400);
+        payload.put("dueDate", dueDateOrigin.plusSeconds(dueDateSeconds).format(ISO_FORMAT));
+        payload.put("completed", unitRandom(index, COMPLETED_SALT) < completedRatio);
+        return payload;
+    }
+
+    private String title(long index) {
+        int length = (int) Math.max(1, Math.min(200, Math.round(titleLength.sample(
+                unitRandom(index, TITLE_LENGTH_SALT), unitRandom(index, TITLE_LENGTH_SALT + 1)))));
+        StringBuilder title = new StringBuilder(length + 16);
+        for (int word = 0; title.length() < length; word++) {
+            if (word > 0) {
+                title.append(' ');
+            }
+            title.append(WORDS[(int) (unitRandom(index, TITLE_WORD_SALT + word) * WORDS.length)]);
+        }
+        title.setLength(length);
+        title.setCharAt(0, Character.toUpperCase(title.charAt(0)));
+        return title.toString().strip();
+    }
+
+    /**
+     * Deterministic uniform value in [0, 1) for an element and field.
+     */
+    private double unitRandom(long index, long salt) {
+        long z = seed + index * 0x9E3779B97F4A7C15L + salt * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public String toString() {
+        return "seed=" + seed + ", titleLength=" + titleLength + ", dueDateDays=" + dueDateDays
+                + ", completedRatio=" + completedRatio + ", dueDateOrigin=" + dueDateOrigin;
+    }
+
+    /**
+     * Index range [next, end) of the payload sequence.
+     */
+    private final class PayloadSpliterator implements Spliterator<Map<String, Object>> {
+
+        private long next;
+        private final long end;
+
+        PayloadSpliterator(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map<String, Object>> action) {
+            if (next >= end) {
+                return false;
+            }
+            action.accept(payload(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map<String, Object>> action) {
+            long index = next;
+            next = end;
+            for (; index < end; index++) {
+                action.accept(payload(index));
+            }
+        }
+
+        @Override
+        public Spliterator<Map<String, Object>> trySplit() {
+            long remaining = end - next;
+            if (remaining < 2 * MIN_SPLIT_SIZE) {
+                return null;
+            }
+            long middle = next + remaining / 2;
+            PayloadSpliterator prefix = new PayloadSpliterator(next, middle);
+            next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+
+    /**
+     * Shape of a generated numeric field.
+     * Parsed from specs like "fixed:20", "uniform:8:48", "normal:24:6" or "lognormal:20:0.5".
+     */
+    public record Distribution(String shape, double first, double second) {
+
+        /**
+         * @throws IllegalArgumentException for an unknown shape or the wrong number of parameters
+         */
+        public static Distribution parse(String spec) {
+            String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":", -1);
+            int parameters = switch (parts[0]) {
+                case "fixed" -> 1;
+                case "uniform", "normal", "lognormal" -> 2;
+                default -> throw new IllegalArgumentException("Unknown distribution: " + spec);
+            };
+            if (parts.length != parameters + 1) {
+                throw new IllegalArgumentException(parts[0] + " takes " + parameters + " parameter"
+                        + (parameters == 1 ? "" : "s") + ": " + spec);
+            }
+            try {
+                return new Distribution(parts[0], Double.parseDouble(parts[1]),
+                        parameters == 2 ? Double.parseDouble(parts[2]) : 0);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid distribution parameter: " + spec, e);
+            }
+        }
+
+        double sample(double u1, double u2) {
+            return switch (shape) {
+                case "fixed" -> first;
+                case "uniform" -> first + (second - first) * u1;
+                // Box-Muller; for normal first/second are mean and sigma, for lognormal the median and sigma
+                case "normal" -> first + second * gaussian(u1, u2);
+                case "lognormal" -> first * Math.exp(second * gaussian(u1, u2));
+                default -> 0;
+            };
+        }
+
+        private static double gaussian(double u1, double u2) {
+            return Math.sqrt(-2 * Math.log(1 - u1)) * Math.cos(2 * Math.PI * u2);
+        }
+
+        @Override
+        public String toString() {
+            return "fixed".equals(shape) ? shape + ":" + first : shape + ":" + first + ":" + second;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Pre-encoded UTF-8 activity payload.
+ *
+ * The fixed JSON skeleton of an activity is encoded once; rendering copies those bytes
+ * into a per-thread scratch buffer and writes only the id, title, dueDate and completed
+ * values, producing the request body with a single exact-size allocation. Due dates are
+ * formatted at most once per granule (default one minute) and reused in between, so a
+ * hot load loop neither builds a Map nor formats a date per request.
+ */
+public final class PayloadTemplate {
+
+    private static final byte[] ID_PREFIX = ascii("{\"id\":");
+    private static final byte[] TITLE_PREFIX = ascii(",\"title\":\"");
+    private static final byte[] DUE_DATE_PREFIX = ascii("\",\"dueDate\":\"");
+    private static final byte[] COMPLETED_TRUE = ascii("\",\"completed\":true}");
+    private static final byte[] COMPLETED_FALSE = ascii("\",\"completed\":false}");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final DateTimeFormatter ISO_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final long GRANULE_MILLIS = Long.getLong("data.dueDateGranularityMs", 60_000);
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private final int dueDateOffsetDays;
+    private volatile CachedDueDate cachedDueDate = new CachedDueDate(Long.MIN_VALUE, new byte[0]);
+
+    /**
+     * @param dueDateOffsetDays how many days after now the rendered dueDate falls
+     */
+    public PayloadTemplate(int dueDateOffsetDays) {
+        this.dueDateOffsetDays = dueDateOffsetDays;
+    }
+
+    public byte[] render(int id, String title, boolean completed) {
+        byte[] dueDate = currentDueDate();
+        // Worst case: every title char escaped as \\uXXXX (6 bytes) or 3-byte UTF-8
+        int capacity = ID_PREFIX.length + 11 + TITLE_PREFIX.length + title.length() * 6
+                + DUE_DATE_PREFIX.length + dueDate.length + COMPLETED_FALSE.length;
+        byte[] buffer = SCRATCH.get();
+        if (buffer.length < capacity) {
+            buffer = new byte[Math.max(capacity, buffer.length * 2)];
+            SCRATCH.set(buffer);
+        }
+
+        int position = put(buffer, 0, ID_PREFIX);
+        position = putInt(buffer, position, id);
+        position = put(buffer, position, TITLE_PREFIX);
+        position = putEscaped(buffer, position, title);
+        position = put(buffer, position, DUE_DATE_PREFIX);
+        position = put(buffer, position, dueDate);
+        position = put(buffer, position, completed ? COMPLETED_TRUE : COMPLETED_FALSE);
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private byte[] currentDueDate() {
+        long granule = System.currentTimeMillis() / GRANULE_MILLIS;
+        CachedDueDate cached = cachedDueDate;
+        if (cached.granule != granule) {
+            ZonedDateTime dueDate = ZonedDateTime.ofInstant(Instant.ofEpochMilli(granule * GRANULE_MILLIS),
+                    ZoneId.systemDefault()).plusDays(dueDateOffsetDays);
+            cached = new CachedDueDate(granule, ascii(dueDate.format(ISO_FORMAT)));
+            cachedDueDate = cached;
+        }
+        return cached.bytes;
+    }
+
+    private record CachedDueDate(long granule, byte[] bytes) {
+    }
+
+    // --- Encoding ---
+
+    private static int put(byte[] buffer, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    private static int putInt(byte[] buffer, int position, int value) {
+        if (value == Integer.MIN_VALUE) {
+            return put(buffer, position, ascii(Integer.toString(value)));
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = value == 0 ? 1 : (int) Math.log10(value) + 1;
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    /**
+     * Writes a JSON string body (without quotes) as UTF-8, escaping as required. An
+     * unpaired surrogate has no UTF-8 encoding and is written as U+FFFD, as a decoder
+     * would report it.
+     */
+    private static int putEscaped(byte[] buffer, int position, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                buffer[position++] = '\\';
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                char unit = Character.isSurrogate(c) ? '\uFFFD' : c;
+                buffer[position++] = (byte) (0xE0 | (unit >> 12));
+                buffer[position++] = (byte) (0x80 | ((unit >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (unit & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -4,11 +4,27 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class RequestDataFactory {
 
     private static final DateTimeFormatter ISO_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
 
+    // Pre-encoded equivalents of the Map payloads below, for allocation-light hot loops
+    private static final PayloadTemplate NEW_ACTIVITY_TEMPLATE = new PayloadTemplate(7);
+    private static final PayloadTemplate ACTIVITY_TEMPLATE = new PayloadTemplate(3);
+    private static final PayloadTemplate UPDATE_TEMPLATE = new PayloadTemplate(14);
+
+    // Varied payloads for volume tests, configured with -Ddata.gen.* properties
+    private static final ActivityDataGenerator GENERATOR = ActivityDataGenerator.fromSystemProperties();
+
+    /**
+     * Whether services should send pre-encoded template bytes instead of Maps (-Ddata.payloadTemplates=true)
+     */
+    public static boolean useTemplates() {
+        return Boolean.getBoolean("data.payloadTemplates");
+    }
+
     /**
      * Build a standard payload for creating a new activity
      */
@@ -53,4 +69,32 @@ public class RequestDataFactory {
         payload.put("title", "Minimal Task");
         return payload;
     }
+
+    /**
+     * Template equivalent of buildNewActivityPayload, as ready-to-send UTF-8 JSON
+     */
+    public byte[] buildNewActivityPayloadBytes() {
+        return NEW_ACTIVITY_TEMPLATE.render(0, "Sample Task", false);
+    }
+
+    /**
+     * Template equivalent of buildActivityPayload, as ready-to-send UTF-8 JSON
+     */
+    public byte[] buildActivityPayloadBytes(int id, String title, boolean completed) {
+        return ACTIVITY_TEMPLATE.render(id, title, completed);
+    }
+
+    /**
+     * Template equivalent of buildUpdatePayload, as ready-to-send UTF-8 JSON
+     */
+    public byte[] buildUpdatePayloadBytes(int id, String updatedTitle) {
+        return UPDATE_TEMPLATE.render(id, updatedTitle, true);
+    }
+
+    /**
+     * Lazily generate count varied, seeded payloads (see ActivityDataGenerator)
+     */
+    public Stream<Map<String, Object>> generateActivityPayloads(long count) {
+        return GENERATOR.stream(count);
+    }
 }
@@ -0,0 +1,276 @@
+package perf;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Finds the highest concurrency the API sustains within a latency and error SLO.
+ *
+ * Each step holds N closed-loop users for a fixed duration, so the p99 and error rate
+ * are taken over many requests rather than one per user. The first part of every step
+ * is a warmup whose requests are not recorded, so connection setup and the users
+ * starting up do not count against the level. The load doubles until a step
+ * breaks the SLO (or the user limit is reached), then a binary search between the last
+ * passing and first failing level narrows the boundary to the configured resolution.
+ * The boundary levels are re-run to say how repeatable the answer is, and the knee of
+ * the mean-latency curve is reported as the point where queueing starts.
+ */
+public class CapacitySearch {
+
+    private static final Logger log = LogManager.getLogger(CapacitySearch.class);
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    /**
+     * Service level a step must meet to count as sustainable.
+     */
+    public record Slo(double p99Millis, double maxErrorPercent) {
+
+        public static Slo fromSystemProperties() {
+            return new Slo(Double.parseDouble(System.getProperty("stress.sloP99Ms", "1000")),
+                    Double.parseDouble(System.getProperty("stress.sloErrorPercent", "1.0")));
+        }
+
+        boolean isMetBy(Step step) {
+            return step.p99Millis() <= p99Millis && step.errorPercent() <= maxErrorPercent;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("p99<=%.0fms errors<=%.1f%%", p99Millis, maxErrorPercent);
+        }
+    }
+
+    private final Slo slo;
+    private final Duration stepDuration;
+    private final Duration warmup;
+    private final int startUsers;
+    private final int maxUsers;
+    private final double resolution;
+    private final int confirmRuns;
+
+    /**
+     * @param stepDuration measured time at each level, after the warmup
+     * @param warmup unrecorded time at the start of each step
+     * @param resolution stop the binary search once the gap is within this fraction of the capacity
+     * @param confirmRuns how many times each boundary level is re-run to estimate confidence
+     */
+    public CapacitySearch(Slo slo, Duration stepDuration, Duration warmup, int startUsers, int maxUsers,
+                          double resolution, int confirmRuns) {
+        if (startUsers < 1 || maxUsers < startUsers) {
+            throw new IllegalArgumentException("Invalid user range " + startUsers + ".." + maxUsers);
+        }
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("Warmup must not be negative: " + warmup);
+        }
+        this.slo = slo;
+        this.stepDuration = stepDuration;
+        this.warmup = warmup;
+        this.startUsers = startUsers;
+        this.maxUsers = maxUsers;
+        this.resolution = resolution;
+        this.confirmRuns = confirmRuns;
+    }
+
+    /**
+     * Runs the search, passing every measured step to {@code onStep} as it completes.
+     */
+    public Result run(ConstantRateLoadGenerator.Request request, Consumer<Step> onStep) throws InterruptedException {
+        List<Step> steps = new ArrayList<>();
+        int passing = 0;
+        int failing = -1;
+
+        // Ramp: double until the SLO breaks or the limit is reached
+        for (int users = startUsers; ; users = Math.min(maxUsers, users * 2)) {
+            Step step = measure(users, request, onStep, steps);
+            if (!step.metSlo()) {
+                failing = users;
+                break;
+            }
+            passing = users;
+            if (users == maxUsers) {
+                break;
+            }
+        }
+
+        // Binary search between the last passing and first failing level
+        while (failing > 0 && failing - passing > Math.max(1, (int) (passing * resolution))) {
+            int users = passing + (failing - passing) / 2;
+            if (measure(users, request, onStep, steps).metSlo()) {
+                passing = users;
+            } else {
+                failing = users;
+            }
+        }
+
+        // Re-run the boundary: how often does the capacity pass and the next level fail again?
+        int agreeing = 0;
+        int confirmations = 0;
+        for (int i = 0; i < confirmRuns; i++) {
+            if (passing > 0) {
+                confirmations++;
+                agreeing += measure(passing, request, onStep, steps).metSlo() ? 1 : 0;
+            }
+            if (failing > 0) {
+                confirmations++;
+                agreeing += measure(failing, request, onStep, steps).metSlo() ? 0 : 1;
+            }
+        }
+        double confidence = confirmations == 0 ? 0 : (double) agreeing / confirmations;
+
+        return new Result(slo, passing, failing, failing < 0, confidence, confirmations, findKnee(steps),
+                List.copyOf(steps));
+    }
+
+    private Step measure(int users, ConstantRateLoadGenerator.Request request, Consumer<Step> onStep,
+                         List<Step> steps) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder failures = new LongAdder();
+        ExecutorService executor = LoadExecutors.forUsers(users);
+        long start = System.nanoTime() + warmup.toNanos();
+        long end = start + stepDuration.toNanos();
+
+        for (int i = 0; i < users; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < end) {
+                    long requestStart = System.nanoTime();
+                    if (requestStart < start) {
+                        try {
+                            request.send();
+                        } catch (Exception ignored) {
+                            // warmup failures are not counted
+                        }
+                        continue;
+                    }
+                    try {
+                        int status = request.send();
+                        if (status < 200 || status >= 300) {
+                            failures.increment();
+                        }
+                    } catch (Exception e) {
+                        failures.increment();
+                    }
+                    latencies.recordNanos(System.nanoTime() - requestStart);
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(warmup.toSeconds() + stepDuration.toSeconds() + DRAIN_TIMEOUT_SECONDS,
+                TimeUnit.SECONDS)) {
+            log.warn("Step at {} users still running after drain timeout", users);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long requests = latencies.getTotalCount();
+        Step step = new Step(users, requests, requests == 0 ? 0 : (double) failures.sum() / requests * 100,
+                requests / seconds, latencies.getMeanMicros() / 1_000.0, latencies.percentileMillis(50),
+                latencies.percentileMillis(99), false);
+        step = step.withSlo(slo.isMetBy(step) && requests > 0);
+        steps.add(step);
+        log.info("Capacity step: {}", step.summary());
+        onStep.accept(step);
+        return step;
+    }
+
+    /**
+     * Knee of the mean-latency curve (Kneedle): after normalizing users and latency to
+     * 0..1, the level furthest below the straight line from the lightest to the heaviest
+     * load. Repeated levels (the boundary re-runs) are averaged first, so one lucky run
+     * does not pull the curve down. Null with fewer than three levels.
+     */
+    static Step findKnee(List<Step> steps) {
+        TreeMap<Integer, List<Step>> byUsers = new TreeMap<>();
+        for (Step step : steps) {
+            byUsers.computeIfAbsent(step.users(), users -> new ArrayList<>()).add(step);
+        }
+        if (byUsers.size() < 3) {
+            return null;
+        }
+        List<Step> curve = byUsers.values().stream()
+                .map(CapacitySearch::average)
+                .toList();
+        double minUsers = curve.get(0).users();
+        double userRange = curve.get(curve.size() - 1).users() - minUsers;
+        double minLatency = curve.stream().mapToDouble(Step::meanMillis).min().orElse(0);
+        double latencyRange = curve.stream().mapToDouble(Step::meanMillis).max().orElse(0) - minLatency;
+        if (latencyRange <= 0) {
+            return null;
+        }
+
+        Step knee = null;
+        double bestDistance = 0;
+        for (Step step : curve) {
+            double x = (step.users() - minUsers) / userRange;
+            double y = (step.meanMillis() - minLatency) / latencyRange;
+            // Below the diagonal means latency has not yet caught up with load
+            double distance = x - y;
+            if (distance > bestDistance) {
+                bestDistance = distance;
+                knee = step;
+            }
+        }
+        return knee;
+    }
+
+    /**
+     * Average of the runs at one level; it met the SLO only if every run did.
+     */
+    private static Step average(List<Step> runs) {
+        if (runs.size() == 1) {
+            return runs.get(0);
+        }
+        long requests = runs.stream().mapToLong(Step::requests).sum();
+        return new Step(runs.get(0).users(), requests,
+                runs.stream().mapToDouble(Step::errorPercent).average().orElse(0),
+                runs.stream().mapToDouble(Step::throughputRps).average().orElse(0),
+                runs.stream().mapToDouble(Step::meanMillis).average().orElse(0),
+                runs.stream().mapToDouble(Step::p50Millis).average().orElse(0),
+                runs.stream().mapToDouble(Step::p99Millis).average().orElse(0),
+                runs.stream().allMatch(Step::metSlo));
+    }
+
+    /**
+     * One held load level.
+     */
+    public record Step(int users, long requests, double errorPercent, double throughputRps, double meanMillis,
+                       double p50Millis, double p99Millis, boolean metSlo) {
+
+        Step withSlo(boolean met) {
+            return new Step(users, requests, errorPercent, throughputRps, meanMillis, p50Millis, p99Millis, met);
+        }
+
+        public String summary() {
+            return String.format("users=%d %s | %d requests %.1f req/s errors=%.2f%% mean=%.2fms p50=%.2fms "
+                            + "p99=%.2fms", users, metSlo ? "PASS" : "FAIL", requests, throughputRps, errorPercent,
+                    meanMillis, p50Millis, p99Millis);
+        }
+    }
+
+    /**
+     * @param capacity   highest level that met the SLO (0 if none did)
+     * @param firstFailing lowest level that broke it, or -1 if the limit was reached first
+     * @param confidence fraction of boundary re-runs that agreed with the search
+     */
+    public record Result(Slo slo, int capacity, int firstFailing, boolean limitReached, double confidence,
+                         int confirmations, Step knee, List<Step> steps) {
+
+        public String summary() {
+            String bound = limitReached
+                    ? "sustained the SLO up to the " + capacity + "-user limit (capacity is at least this)"
+                    : "capacity " + capacity + " users, SLO broken at " + firstFailing;
+            String kneeText = knee == null ? "no knee found"
+                    : String.format("latency knee at %d users (mean %.2fms, %.1f req/s)", knee.users(),
+                    knee.meanMillis(), knee.throughputRps());
+            return String.format("%s | SLO %s | confidence %.0f%% (%d boundary re-runs) | %s | %d steps",
+                    bound, slo, confidence * 100, confirmations, kneeText, steps.size());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package perf;
+
+import jdk.jfr.consumer.RecordingStream;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how busy the virtual-thread carrier pool was during a load run, and how
+ * often virtual threads were pinned to their carrier (blocking inside synchronized
+ * code or native frames), which silently turns virtual threads back into OS threads.
+ *
+ * Utilization is the CPU time consumed by carrier threads over the interval divided
+ * by the time the scheduler's parallelism could have used. Carriers are recognised by
+ * their thread class, so other ForkJoinPools (the common pool, parallel streams) are
+ * not counted. Pinning is observed through the JFR jdk.VirtualThreadPinned event; the
+ * recording is only started in virtual-thread load mode, where its result is reported.
+ */
+public class CarrierMonitor implements AutoCloseable {
+
+    // The virtual-thread scheduler's worker threads; no public API identifies them
+    private static final String CARRIER_THREAD_CLASS = "jdk.internal.misc.CarrierThread";
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(1);
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Map<Long, Long> startCpuNanos;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final RecordingStream pinnedStream;
+
+    private CarrierMonitor(boolean recordPinning) {
+        startCpuNanos = carrierCpuNanos();
+        if (!recordPinning) {
+            pinnedStream = null;
+            return;
+        }
+        pinnedStream = new RecordingStream();
+        pinnedStream.enable("jdk.VirtualThreadPinned").withThreshold(PINNED_THRESHOLD);
+        pinnedStream.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinnedEvents.increment();
+            pinnedNanos.add(event.getDuration().toNanos());
+        });
+        pinnedStream.startAsync();
+    }
+
+    /**
+     * Starts measuring; pinning is only recorded when -Dperf.executor=virtual.
+     */
+    public static CarrierMonitor start() {
+        return new CarrierMonitor(LoadExecutors.mode() == LoadExecutors.Mode.VIRTUAL);
+    }
+
+    public Report stop() {
+        if (pinnedStream != null) {
+            pinnedStream.stop();
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        Map<Long, Long> endCpuNanos = carrierCpuNanos();
+        long busyNanos = 0;
+        for (Map.Entry<Long, Long> entry : endCpuNanos.entrySet()) {
+            busyNanos += entry.getValue() - startCpuNanos.getOrDefault(entry.getKey(), 0L);
+        }
+        int parallelism = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        double utilization = elapsed == 0 ? 0 : (double) busyNanos / ((double) elapsed * parallelism) * 100;
+        return new Report(Math.min(100.0, utilization), endCpuNanos.size(), parallelism,
+                pinnedEvents.sum(), Duration.ofNanos(pinnedNanos.sum()));
+    }
+
+    @Override
+    public void close() {
+        if (pinnedStream != null) {
+            pinnedStream.close();
+        }
+    }
+
+    private Map<Long, Long> carrierCpuNanos() {
+        Map<Long, Long> cpu = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getClass().getName().equals(CARRIER_THREAD_CLASS)) {
+                long nanos = threads.getThreadCpuTime(thread.threadId());
+                if (nanos >= 0) {
+                    cpu.put(thread.threadId(), nanos);
+                }
+            }
+        }
+        return cpu;
+    }
+
+    public record Report(double utilizationPercent, int carriers, int parallelism,
+                         long pinnedEvents, Duration pinnedTime) {
+
+        public String summary() {
+            return String.format("carrier utilization=%.1f%% (%d carriers, parallelism %d) | pinned=%d events, %dms",
+                    utilizationPercent, carriers, parallelism, pinnedEvents, pinnedTime.toMillis());
+        }
+    }
+}
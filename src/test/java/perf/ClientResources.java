@@ -0,0 +1,82 @@
+package perf;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Point-in-time snapshot of the test JVM's own resource usage.
+ *
+ * Used by soak runs to tell leaks and drift in the harness apart from the server's:
+ * if client heap, threads or sockets climb along with latency, the problem is ours.
+ * Socket and file-descriptor counts come from /proc/self/fd and are -1 where that is
+ * not available.
+ */
+public record ClientResources(long heapUsedBytes, long heapAfterGcBytes, int threads, int openFileDescriptors,
+                              int openSockets, long gcCount, long gcTimeMillis) {
+
+    private static final Path PROC_FD = Path.of("/proc/self/fd");
+
+    public static ClientResources capture() {
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcTime += Math.max(0, collector.getCollectionTime());
+        }
+        int[] descriptors = countDescriptors();
+        return new ClientResources(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                heapUsedAfterLastGc(), ManagementFactory.getThreadMXBean().getThreadCount(),
+                descriptors[0], descriptors[1], gcCount, gcTime);
+    }
+
+    /**
+     * Live heap as of the last collection of each heap pool, which unlike the current
+     * usage does not swing with allocation between collections.
+     */
+    public static long heapUsedAfterLastGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static int[] countDescriptors() {
+        if (!Files.isDirectory(PROC_FD)) {
+            return new int[]{-1, -1};
+        }
+        int descriptors = 0;
+        int sockets = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(PROC_FD)) {
+            for (Path entry : entries) {
+                descriptors++;
+                try {
+                    if (Files.readSymbolicLink(entry).toString().startsWith("socket:")) {
+                        sockets++;
+                    }
+                } catch (IOException e) {
+                    // closed while listing
+                }
+            }
+        } catch (IOException e) {
+            return new int[]{-1, -1};
+        }
+        return new int[]{descriptors, sockets};
+    }
+
+    public String summary() {
+        return String.format("heap=%dMB (after GC %dMB) threads=%d fds=%d sockets=%d gc=%d (%dms)",
+                heapUsedBytes / (1024 * 1024), heapAfterGcBytes / (1024 * 1024), threads,
+                openFileDescriptors, openSockets, gcCount, gcTimeMillis);
+    }
+}
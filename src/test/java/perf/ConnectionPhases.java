@@ -0,0 +1,182 @@
+package perf;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Breaks request latency down into connection phases and aggregates them per phase.
+ *
+ * A request is timed on the thread that sends it: {@link #begin()} opens a record,
+ * hooks in the HTTP connection layer ({@code base.HttpConnectionPool}) add the pool
+ * wait, DNS lookup, TCP connect, TLS handshake, request write and wait for the response
+ * headers, and {@link #end(boolean)} closes it, counting everything after the headers as
+ * download. Phases that did not happen, such as connect and TLS on a reused connection,
+ * count as zero. Totals are also split by new versus reused connection, so a tail
+ * dominated by handshakes shows up directly.
+ *
+ * Only requests that went through the hooks are recorded; with -Dhttp.pool.enabled=false
+ * REST Assured builds its own clients and nothing is broken down. The caller can tie a
+ * completed record to its response with {@link #attach(Object)}, so the breakdown can be
+ * looked up later from any thread, including for a response served again from a cache.
+ */
+public final class ConnectionPhases {
+
+    public enum Phase { POOL_WAIT, DNS, CONNECT, TLS, SEND, TTFB, DOWNLOAD }
+
+    private static final ThreadLocal<Timing> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Timing> LAST = new ThreadLocal<>();
+    // Weak keys: a response's breakdown lives exactly as long as the response
+    private static final Map<Object, Timing> BY_RESPONSE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Map<Phase, LatencyHistogram> PHASES = new EnumMap<>(Phase.class);
+    private static final LatencyHistogram NEW_CONNECTION_TOTALS = new LatencyHistogram();
+    private static final LatencyHistogram REUSED_CONNECTION_TOTALS = new LatencyHistogram();
+
+    static {
+        for (Phase phase : Phase.values()) {
+            PHASES.put(phase, new LatencyHistogram());
+        }
+    }
+
+    private ConnectionPhases() {
+    }
+
+    /**
+     * Opens the timing record for a request about to be sent on this thread.
+     */
+    public static void begin() {
+        CURRENT.set(new Timing(System.nanoTime()));
+        LAST.remove();
+    }
+
+    /**
+     * Adds time to a phase of the request open on this thread, if any.
+     */
+    public static void record(Phase phase, long nanos) {
+        Timing timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * Marks whether the request got an already-open connection from the pool.
+     */
+    public static void connectionLeased(boolean reused) {
+        Timing timing = CURRENT.get();
+        if (timing != null) {
+            timing.reused = reused;
+        }
+    }
+
+    /**
+     * Marks the moment the response headers were read.
+     */
+    public static void headersReceived() {
+        Timing timing = CURRENT.get();
+        if (timing != null) {
+            timing.headersAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Closes the request open on this thread and adds it to the aggregates when it
+     * completed and passed through the hooks.
+     */
+    public static void end(boolean completed) {
+        Timing timing = CURRENT.get();
+        CURRENT.remove();
+        if (timing == null || !completed || timing.headersAt == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        timing.nanos[Phase.DOWNLOAD.ordinal()] = now - timing.headersAt;
+        timing.totalNanos = now - timing.startedAt;
+        for (Phase phase : Phase.values()) {
+            PHASES.get(phase).recordNanos(timing.nanos[phase.ordinal()]);
+        }
+        (timing.reused ? REUSED_CONNECTION_TOTALS : NEW_CONNECTION_TOTALS).recordNanos(timing.totalNanos);
+        LAST.set(timing);
+    }
+
+    public static LatencyHistogram histogram(Phase phase) {
+        return PHASES.get(phase);
+    }
+
+    public static void reset() {
+        PHASES.values().forEach(LatencyHistogram::reset);
+        NEW_CONNECTION_TOTALS.reset();
+        REUSED_CONNECTION_TOTALS.reset();
+    }
+
+    /**
+     * Ties the request just closed on this thread by {@link #end(boolean)} to its response;
+     * does nothing if that request was not recorded.
+     */
+    public static void attach(Object response) {
+        Timing timing = LAST.get();
+        if (timing != null) {
+            BY_RESPONSE.put(response, timing);
+        }
+    }
+
+    /**
+     * Phases of the request that produced {@code response}, or null if it was not attached.
+     */
+    public static String of(Object response) {
+        Timing timing = BY_RESPONSE.get(response);
+        return timing == null ? null : format(timing);
+    }
+
+    /**
+     * Phases of the last request completed on this thread, or null if there is none.
+     */
+    public static String lastOnThisThread() {
+        Timing timing = LAST.get();
+        return timing == null ? null : format(timing);
+    }
+
+    private static String format(Timing timing) {
+        StringBuilder line = new StringBuilder(timing.reused ? "reused connection" : "new connection");
+        for (Phase phase : Phase.values()) {
+            line.append(String.format(" %s=%.2fms", label(phase), timing.nanos[phase.ordinal()] / 1_000_000.0));
+        }
+        return line.append(String.format(" total=%.2fms", timing.totalNanos / 1_000_000.0)).toString();
+    }
+
+    /**
+     * One line per phase, then totals for new and reused connections.
+     */
+    public static String summary() {
+        StringBuilder out = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = PHASES.get(phase);
+            out.append(String.format("%-9s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms mean=%.2fms%n", label(phase),
+                    histogram.percentileMillis(50), histogram.percentileMillis(90), histogram.percentileMillis(99),
+                    histogram.getMaxMicros() / 1_000.0, histogram.getMeanMicros() / 1_000.0));
+        }
+        out.append("new connection total:    ").append(NEW_CONNECTION_TOTALS.summary()).append('\n');
+        out.append("reused connection total: ").append(REUSED_CONNECTION_TOTALS.summary());
+        return out.toString();
+    }
+
+    private static String label(Phase phase) {
+        return phase.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private static final class Timing {
+
+        private final long startedAt;
+        private final long[] nanos = new long[Phase.values().length];
+        private long headersAt;
+        private long totalNanos;
+        private boolean reused;
+
+        Timing(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
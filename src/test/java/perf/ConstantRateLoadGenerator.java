@@ -0,0 +1,188 @@
+package perf;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator that fires requests at a fixed arrival rate.
+ *
+ * A single dispatcher thread releases request i at {@code start + i / targetRps}
+ * whether or not earlier requests have completed, so a slow server cannot quietly
+ * lower the offered load. Latency is measured from each request's intended start
+ * time, which corrects for coordinated omission; the uncorrected service time is
+ * kept alongside for comparison. Requests still running when the drain timeout
+ * expires are recorded as failures with their latency up to that point, so the
+ * slowest samples are never dropped from the histograms.
+ */
+public class ConstantRateLoadGenerator {
+
+    private static final Logger log = LogManager.getLogger(ConstantRateLoadGenerator.class);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     * A single request; returns the HTTP status code.
+     */
+    @FunctionalInterface
+    public interface Request {
+        int send() throws Exception;
+    }
+
+    /**
+     * Sees every completed request as it finishes, e.g. to aggregate per time window.
+     */
+    @FunctionalInterface
+    public interface Observer {
+        void onComplete(long latencyNanos, long serviceNanos, boolean succeeded);
+    }
+
+    private final double targetRps;
+    private final Duration duration;
+    private final ExecutorService executor;
+
+    /**
+     * @param executor runs the requests; it must not bound concurrency (e.g. a cached or
+     *                 virtual-thread executor), otherwise queued requests are reported late;
+     *                 it is shut down when the run completes
+     */
+    public ConstantRateLoadGenerator(double targetRps, Duration duration, ExecutorService executor) {
+        if (targetRps <= 0) {
+            throw new IllegalArgumentException("Target rate must be positive: " + targetRps);
+        }
+        this.targetRps = targetRps;
+        this.duration = duration;
+        this.executor = executor;
+    }
+
+    public Result run(Request request) throws InterruptedException {
+        return run(request, (latencyNanos, serviceNanos, succeeded) -> {
+        });
+    }
+
+    public Result run(Request request, Observer observer) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        LatencyHistogram serviceTimes = new LatencyHistogram();
+        LatencyHistogram dispatchLag = new LatencyHistogram();
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAccumulator lastCompletion = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        // Requests dispatched but not yet recorded; whoever removes an entry records it
+        Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+
+        long totalRequests = (long) (targetRps * duration.toNanos() / 1_000_000_000.0);
+        long start = System.nanoTime();
+
+        log.info("Constant-rate run: {} req/s for {}s ({} requests)", targetRps, duration.toSeconds(), totalRequests);
+
+        for (long i = 0; i < totalRequests; i++) {
+            // Computed from i rather than accumulated, so non-integer rates do not drift
+            long intendedStart = start + (long) (i * 1_000_000_000.0 / targetRps);
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            dispatchLag.recordNanos(System.nanoTime() - intendedStart);
+
+            Long key = i;
+            InFlight pending = new InFlight(intendedStart);
+            inFlight.put(key, pending);
+            executor.execute(() -> {
+                pending.actualStart = System.nanoTime();
+                boolean ok = false;
+                try {
+                    int status = request.send();
+                    ok = status >= 200 && status < 300;
+                } catch (Exception e) {
+                    // counted as a failure below
+                } finally {
+                    long end = System.nanoTime();
+                    if (inFlight.remove(key) != null) {
+                        (ok ? succeeded : failed).increment();
+                        latencies.recordNanos(end - intendedStart);
+                        serviceTimes.recordNanos(end - pending.actualStart);
+                        lastCompletion.accumulate(end);
+                        observer.onComplete(end - intendedStart, end - pending.actualStart, ok);
+                    }
+                }
+            });
+        }
+        long dispatchEnd = System.nanoTime();
+
+        executor.shutdown();
+        if (!executor.awaitTermination(DRAIN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            long deadline = System.nanoTime();
+            int abandoned = 0;
+            for (Long key : inFlight.keySet()) {
+                InFlight pending = inFlight.remove(key);
+                if (pending == null) {
+                    continue;
+                }
+                // Never started means it waited in the executor the whole time
+                long actualStart = pending.actualStart == 0 ? deadline : pending.actualStart;
+                failed.increment();
+                latencies.recordNanos(deadline - pending.intendedStart);
+                serviceTimes.recordNanos(deadline - actualStart);
+                lastCompletion.accumulate(deadline);
+                observer.onComplete(deadline - pending.intendedStart, deadline - actualStart, false);
+                abandoned++;
+            }
+            executor.shutdownNow();
+            log.warn("{} requests still in flight after {}s drain timeout, recorded as failed", abandoned,
+                    DRAIN_TIMEOUT.toSeconds());
+        }
+        long end = System.nanoTime();
+
+        // Completions are spread over the scheduled window, or longer if the server fell behind
+        long completed = succeeded.sum() + failed.sum();
+        long activeNanos = Math.max(duration.toNanos(), lastCompletion.get() - start);
+        return new Result(totalRequests, succeeded.sum(), failed.sum(), targetRps,
+                totalRequests / (Math.max(duration.toNanos(), dispatchEnd - start) / 1_000_000_000.0),
+                completed / (activeNanos / 1_000_000_000.0),
+                Duration.ofNanos(end - start), latencies, serviceTimes, dispatchLag);
+    }
+
+    private static final class InFlight {
+
+        final long intendedStart;
+        volatile long actualStart;
+
+        InFlight(long intendedStart) {
+            this.intendedStart = intendedStart;
+        }
+    }
+
+    /**
+     * Outcome of a run. {@code latencies} are measured from intended start (corrected);
+     * {@code serviceTimes} from the moment the request actually began (uncorrected).
+     */
+    public record Result(long sent, long succeeded, long failed, double targetRps, double offeredRps,
+                         double achievedRps, Duration elapsed, LatencyHistogram latencies,
+                         LatencyHistogram serviceTimes, LatencyHistogram dispatchLag) {
+
+        /**
+         * How far the completed request rate fell short of the target, in percent.
+         */
+        public double shortfallPercent() {
+            return Math.max(0, (1 - achievedRps / targetRps) * 100);
+        }
+
+        public double successRate() {
+            return sent == 0 ? 0 : (double) succeeded / sent * 100;
+        }
+
+        public String summary() {
+            return String.format("target=%.1f req/s offered=%.1f req/s achieved=%.1f req/s (shortfall %.1f%%) "
+                            + "| sent=%d ok=%d failed=%d | elapsed=%dms",
+                    targetRps, offeredRps, achievedRps, shortfallPercent(), sent, succeeded, failed,
+                    elapsed.toMillis());
+        }
+    }
+}
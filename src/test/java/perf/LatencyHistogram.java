@@ -0,0 +1,239 @@
+package perf;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-memory latency histogram with microsecond resolution.
+ *
+ * Values are bucketed log-linearly in the style of HdrHistogram: every power of two
+ * is split into 64 linear sub-buckets, so any recorded value is reported within
+ * ~1.6% of its true value from 1us up to {@link #MAX_TRACKABLE_MICROS} (2^41 us, about
+ * 25 days); larger values are clamped to it. Recording takes no lock and allocates
+ * nothing: it increments one bucket in an atomic array and updates striped count, sum,
+ * min and max cells. These five updates are not atomic as a group, so a snapshot taken
+ * while other threads record may be off by the samples in flight. Histograms recorded
+ * on different threads or JVMs can be merged with {@link #add(LatencyHistogram)}.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final int MAX_EXPONENT = 40;
+
+    public static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF;
+    public static final long MAX_TRACKABLE_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator minMicros = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000);
+    }
+
+    public void recordMillis(long millis) {
+        recordMicros(millis * 1_000);
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_TRACKABLE_MICROS));
+        counts.incrementAndGet(indexFor(value));
+        totalCount.increment();
+        totalMicros.add(value);
+        maxMicros.accumulate(value);
+        minMicros.accumulate(value);
+    }
+
+    /**
+     * Records {@code count} occurrences of a value in one step, used when merging or decoding.
+     */
+    public void recordMicros(long micros, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long value = Math.max(0, Math.min(micros, MAX_TRACKABLE_MICROS));
+        counts.addAndGet(indexFor(value), count);
+        totalCount.add(count);
+        totalMicros.add(value * count);
+        maxMicros.accumulate(value);
+        minMicros.accumulate(value);
+    }
+
+    /**
+     * Merges another histogram's samples into this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalMicros.add(other.totalMicros.sum());
+        if (other.getTotalCount() > 0) {
+            maxMicros.accumulate(other.getMaxMicros());
+            minMicros.accumulate(other.getMinMicros());
+        }
+    }
+
+    /**
+     * Compact, serializable copy of this histogram (non-empty buckets only), e.g. to ship
+     * a worker JVM's samples to the coordinator; {@link #decode(Encoded)} restores it exactly.
+     */
+    public Encoded encode() {
+        int nonEmpty = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts.get(i) > 0) {
+                nonEmpty++;
+            }
+        }
+        int[] indexes = new int[nonEmpty];
+        long[] bucketCounts = new long[nonEmpty];
+        for (int i = 0, j = 0; i < BUCKET_COUNT && j < nonEmpty; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                indexes[j] = i;
+                bucketCounts[j++] = count;
+            }
+        }
+        return new Encoded(indexes, bucketCounts, totalMicros.sum(), getMinMicros(), getMaxMicros());
+    }
+
+    public static LatencyHistogram decode(Encoded encoded) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long total = 0;
+        for (int j = 0; j < encoded.indexes().length; j++) {
+            histogram.counts.addAndGet(encoded.indexes()[j], encoded.counts()[j]);
+            total += encoded.counts()[j];
+        }
+        histogram.totalCount.add(total);
+        histogram.totalMicros.add(encoded.totalMicros());
+        if (total > 0) {
+            histogram.maxMicros.accumulate(encoded.maxMicros());
+            histogram.minMicros.accumulate(encoded.minMicros());
+        }
+        return histogram;
+    }
+
+    /**
+     * Non-empty buckets as parallel index/count arrays plus the exact sum, min and max.
+     */
+    public record Encoded(int[] indexes, long[] counts, long totalMicros, long minMicros, long maxMicros) {
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalMicros.reset();
+        maxMicros.reset();
+        minMicros.reset();
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public long getMaxMicros() {
+        return getTotalCount() == 0 ? 0 : maxMicros.get();
+    }
+
+    public long getMinMicros() {
+        return getTotalCount() == 0 ? 0 : minMicros.get();
+    }
+
+    public double getMeanMicros() {
+        long count = getTotalCount();
+        return count == 0 ? 0 : (double) totalMicros.sum() / count;
+    }
+
+    /**
+     * Value at the given percentile (0-100), reported as the upper bound of its bucket
+     * and never above the recorded maximum.
+     */
+    public long percentileMicros(double percentile) {
+        long count = getTotalCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    public double percentileMillis(double percentile) {
+        return percentileMicros(percentile) / 1_000.0;
+    }
+
+    /**
+     * Number of samples in a bucket; with {@link #valueAtIndex(int)} this exposes the raw
+     * distribution for merging, encoding and statistical comparison.
+     */
+    public long countAtIndex(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * Representative (midpoint) value in microseconds of a bucket.
+     */
+    public static long valueAtIndex(int index) {
+        return (lowestEquivalentValue(index) + highestEquivalentValue(index)) / 2;
+    }
+
+    /**
+     * One-line p50/p90/p99/p99.9/max summary in milliseconds.
+     */
+    public String summary() {
+        return String.format("count=%d p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                getTotalCount(), percentileMillis(50), percentileMillis(90), percentileMillis(99),
+                percentileMillis(99.9), getMaxMicros() / 1_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    // --- Bucket arithmetic ---
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF;
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF + subBucket;
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return subBucket << shift;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        return lowestEquivalentValue(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,273 @@
+package perf;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one constant-rate workload across several {@link LoadWorker} JVMs and merges
+ * their results, so load is not capped by one JVM's heap, GC, sockets or scheduler.
+ *
+ * In launch mode the coordinator starts the workers itself on this machine with the
+ * current classpath; in attach mode it waits for workers started by hand, on this or
+ * other hosts. Each worker's clock offset is estimated from the round trip of a few
+ * probes, and every worker is given the same start instant in its own clock. The
+ * target rate is split evenly, and the returned result merges every worker's counters
+ * and histograms as if one generator had produced them.
+ *
+ * Configured with -Dperf.distributed.* properties, see {@link #fromSystemProperties()}.
+ */
+public class LoadCoordinator {
+
+    private static final Logger log = LogManager.getLogger(LoadCoordinator.class);
+    private static final int CLOCK_PROBES = 5;
+    private static final Duration DRAIN_MARGIN = Duration.ofSeconds(90);
+    // Forwarded to launched workers so they run with the same client settings as this JVM
+    private static final List<String> FORWARDED_PROPERTY_PREFIXES =
+            List.of("perf.executor", "perf.maxUsers", "http.", "log.", "log4j2.", "data.", "metrics.enabled",
+                    "resilience.");
+
+    private final int workers;
+    private final boolean launch;
+    private final String bindHost;
+    private final int port;
+    private final Duration attachTimeout;
+    private final Duration startDelay;
+    private final List<String> workerJvmArgs;
+
+    /**
+     * @param workers       number of worker JVMs
+     * @param launch        start the workers here, or wait for them to attach
+     * @param bindHost      address to listen on; loopback unless workers come from other hosts
+     * @param port          port to listen on, 0 for any free port (launch mode only)
+     * @param attachTimeout how long to wait for all workers to connect
+     * @param startDelay    lead time between handing out plans and the common start
+     * @param workerJvmArgs extra JVM options for launched workers, e.g. -Xmx1g
+     */
+    public LoadCoordinator(int workers, boolean launch, String bindHost, int port, Duration attachTimeout,
+                           Duration startDelay, List<String> workerJvmArgs) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is needed, was " + workers);
+        }
+        this.workers = workers;
+        this.launch = launch;
+        this.bindHost = bindHost;
+        this.port = port;
+        this.attachTimeout = attachTimeout;
+        this.startDelay = startDelay;
+        this.workerJvmArgs = workerJvmArgs;
+    }
+
+    /**
+     * -Dperf.distributed.workers (2), -Dperf.distributed.mode=launch|attach (launch),
+     * -Dperf.distributed.bind (127.0.0.1 when launching, 0.0.0.0 when attaching),
+     * -Dperf.distributed.port (any free port when launching, 7411 when attaching),
+     * -Dperf.distributed.attachSeconds (60), -Dperf.distributed.startDelayMs (2000) and
+     * -Dperf.distributed.workerJvmArgs (-Xmx512m).
+     */
+    public static LoadCoordinator fromSystemProperties() {
+        boolean launch = !"attach".equals(System.getProperty("perf.distributed.mode", "launch")
+                .toLowerCase(Locale.ROOT));
+        String jvmArgs = System.getProperty("perf.distributed.workerJvmArgs", "-Xmx512m").trim();
+        return new LoadCoordinator(Integer.getInteger("perf.distributed.workers", 2), launch,
+                System.getProperty("perf.distributed.bind", launch ? "127.0.0.1" : "0.0.0.0"),
+                Integer.getInteger("perf.distributed.port", launch ? 0 : 7411),
+                Duration.ofSeconds(Long.getLong("perf.distributed.attachSeconds", 60)),
+                Duration.ofMillis(Long.getLong("perf.distributed.startDelayMs", 2_000)),
+                jvmArgs.isEmpty() ? List.of() : List.of(jvmArgs.split("\\s+")));
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Runs the workload at {@code totalRps} split across all workers and waits for every report.
+     *
+     * @throws IllegalStateException if a worker does not connect in time or reports a failure
+     */
+    public Result run(String baseUrl, LoadWorker.Workload workload, double totalRps, Duration duration)
+            throws InterruptedException {
+        List<Process> processes = new ArrayList<>();
+        List<LoadWorker.Channel> channels = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket()) {
+            server.bind(new InetSocketAddress(InetAddress.getByName(bindHost), port));
+            server.setSoTimeout((int) attachTimeout.toMillis());
+            String address = bindHost + ":" + server.getLocalPort();
+            if (launch) {
+                for (int i = 0; i < workers; i++) {
+                    processes.add(launchWorker(i, address));
+                }
+                log.info("Launched {} worker JVMs against coordinator {}", workers, address);
+            } else {
+                log.info("Waiting for {} workers: java -cp <test classpath> {} <this-host>:{}", workers,
+                        LoadWorker.class.getName(), server.getLocalPort());
+            }
+
+            List<LoadWorker.Hello> hellos = new ArrayList<>();
+            List<Long> clockOffsets = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                LoadWorker.Channel channel;
+                try {
+                    channel = new LoadWorker.Channel(server.accept());
+                } catch (SocketTimeoutException e) {
+                    throw new IllegalStateException("Only " + i + " of " + workers + " workers connected within "
+                            + attachTimeout.toSeconds() + "s", e);
+                }
+                channels.add(channel);
+                channel.setReadTimeout(attachTimeout);
+                LoadWorker.Hello hello = channel.receive(LoadWorker.Hello.class);
+                hellos.add(hello);
+                clockOffsets.add(estimateClockOffset(channel));
+                log.info("Worker {} attached: {} pid={} cores={} maxHeap={}MB clockOffset={}ms", i, hello.host(),
+                        hello.pid(), hello.cores(), hello.maxHeapBytes() / (1024 * 1024), clockOffsets.get(i));
+            }
+
+            long startAt = System.currentTimeMillis() + startDelay.toMillis();
+            double share = totalRps / workers;
+            for (int i = 0; i < workers; i++) {
+                channels.get(i).setReadTimeout(startDelay.plus(duration).plus(DRAIN_MARGIN));
+                channels.get(i).send(new LoadWorker.Plan(i, baseUrl, workload, share, duration.toMillis(),
+                        startAt + clockOffsets.get(i)));
+            }
+
+            List<LoadWorker.Report> reports = new ArrayList<>();
+            for (LoadWorker.Channel channel : channels) {
+                reports.add(channel.receive(LoadWorker.Report.class));
+            }
+            List<String> failures = reports.stream().filter(report -> report.error() != null)
+                    .map(report -> "worker " + report.workerIndex() + " on " + report.host() + ": " + report.error())
+                    .toList();
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException("Distributed run failed: " + String.join("; ", failures));
+            }
+            return merge(totalRps, hellos, reports);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Distributed run failed", e);
+        } finally {
+            for (LoadWorker.Channel channel : channels) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // the worker is done with it either way
+                }
+            }
+            for (Process process : processes) {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    /**
+     * How far the worker's clock is ahead of ours, from the probe with the shortest round
+     * trip (the one least distorted by queueing), assuming the reply was taken halfway.
+     */
+    private static long estimateClockOffset(LoadWorker.Channel channel) throws IOException {
+        long bestRoundTrip = Long.MAX_VALUE;
+        long offset = 0;
+        for (int probe = 0; probe < CLOCK_PROBES; probe++) {
+            long sent = System.currentTimeMillis();
+            channel.send(new LoadWorker.ClockProbe());
+            long workerNow = channel.receive(LoadWorker.ClockReply.class).nowMillis();
+            long received = System.currentTimeMillis();
+            if (received - sent < bestRoundTrip) {
+                bestRoundTrip = received - sent;
+                offset = workerNow - (sent + received) / 2;
+            }
+        }
+        return offset;
+    }
+
+    private Process launchWorker(int index, String coordinatorAddress) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.addAll(workerJvmArgs);
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> FORWARDED_PROPERTY_PREFIXES.stream().anyMatch(name::startsWith))
+                .sorted()
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        if (System.getProperty("log.sampleEvery") == null) {
+            // A worker's per-request lines would only be noise in its log file
+            command.add("-Dlog.sampleEvery=1000");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadWorker.class.getName());
+        command.add(coordinatorAddress);
+
+        Path logFile = Path.of("target", "distributed", "worker-" + index + ".log");
+        Files.createDirectories(logFile.getParent());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .directory(new File(System.getProperty("user.dir")))
+                .start();
+    }
+
+    private static Result merge(double totalRps, List<LoadWorker.Hello> hellos, List<LoadWorker.Report> reports) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        LatencyHistogram serviceTimes = new LatencyHistogram();
+        LatencyHistogram dispatchLag = new LatencyHistogram();
+        long sent = 0;
+        long succeeded = 0;
+        long failed = 0;
+        double offered = 0;
+        double achieved = 0;
+        long elapsed = 0;
+        long maxSkew = 0;
+        for (LoadWorker.Report report : reports) {
+            latencies.add(LatencyHistogram.decode(report.latencies()));
+            serviceTimes.add(LatencyHistogram.decode(report.serviceTimes()));
+            dispatchLag.add(LatencyHistogram.decode(report.dispatchLag()));
+            sent += report.sent();
+            succeeded += report.succeeded();
+            failed += report.failed();
+            offered += report.offeredRps();
+            achieved += report.achievedRps();
+            elapsed = Math.max(elapsed, report.elapsedMillis());
+            maxSkew = Math.max(maxSkew, Math.abs(report.startSkewMillis()));
+        }
+        ConstantRateLoadGenerator.Result overall = new ConstantRateLoadGenerator.Result(sent, succeeded, failed,
+                totalRps, offered, achieved, Duration.ofMillis(elapsed), latencies, serviceTimes, dispatchLag);
+        return new Result(overall, hellos, reports, maxSkew);
+    }
+
+    /**
+     * The merged run plus what each worker saw.
+     *
+     * @param maxStartSkewMillis largest difference between a worker's actual and planned
+     *                           start, as measured by its own clock
+     */
+    public record Result(ConstantRateLoadGenerator.Result overall, List<LoadWorker.Hello> workers,
+                         List<LoadWorker.Report> reports, long maxStartSkewMillis) {
+
+        public List<String> workerSummaries() {
+            List<String> lines = new ArrayList<>();
+            for (LoadWorker.Report report : reports) {
+                LatencyHistogram latencies = LatencyHistogram.decode(report.latencies());
+                lines.add(String.format("worker %d on %s: sent=%d ok=%d failed=%d achieved=%.1f req/s "
+                                + "startSkew=%dms | %s", report.workerIndex(), report.host(), report.sent(),
+                        report.succeeded(), report.failed(), report.achievedRps(), report.startSkewMillis(),
+                        latencies.summary()));
+            }
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package perf;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for simulated users, selected with -Dperf.executor=platform|virtual.
+ *
+ * In platform mode every simulated user is an OS thread, which caps a single JVM at a
+ * few hundred users. In virtual mode each user is a virtual thread, so blocking calls
+ * in ActivityService park cheaply and 10,000+ users fit in one JVM. Both modes send
+ * through the same ActivityService and connection pool, so a comparison changes only
+ * the threading. Whether a request pinned its carrier is measured, not assumed:
+ * {@link CarrierMonitor} records JFR pinning events in virtual mode.
+ */
+public final class LoadExecutors {
+
+    public enum Mode { PLATFORM, VIRTUAL }
+
+    private static final int PLATFORM_MAX_USERS = 50;
+    private static final int VIRTUAL_MAX_USERS = 10_000;
+
+    private LoadExecutors() {
+    }
+
+    public static Mode mode() {
+        return Mode.valueOf(System.getProperty("perf.executor", "platform").toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Executor running exactly one task per simulated user.
+     */
+    public static ExecutorService forUsers(int users) {
+        return mode() == Mode.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(users);
+    }
+
+    /**
+     * Unbounded executor for open-model (arrival rate) load.
+     */
+    public static ExecutorService unbounded() {
+        return mode() == Mode.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Highest user count the current mode should be asked to simulate, overridable
+     * with -Dperf.maxUsers.
+     */
+    public static int maxUsers() {
+        return Integer.getInteger("perf.maxUsers", mode() == Mode.VIRTUAL ? VIRTUAL_MAX_USERS : PLATFORM_MAX_USERS);
+    }
+}
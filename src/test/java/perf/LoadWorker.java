@@ -0,0 +1,212 @@
+package perf;
+
+import base.HttpConnectionPool;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import services.ActivityService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One load-generating JVM of a distributed run, driven by a {@link LoadCoordinator}.
+ *
+ * The worker connects to the coordinator, answers its clock probes, waits for its
+ * share of the plan, starts at the agreed instant (translated into this machine's
+ * clock), runs a {@link ConstantRateLoadGenerator} and sends back its counters and
+ * encoded histograms. Started by the coordinator on the same machine, or by hand on
+ * other hosts:
+ *
+ * <pre>java -cp &lt;test classpath&gt; perf.LoadWorker coordinator-host:7411</pre>
+ */
+public final class LoadWorker {
+
+    private static final Logger log = LogManager.getLogger(LoadWorker.class);
+
+    private LoadWorker() {
+    }
+
+    /**
+     * What each request of a distributed run does.
+     */
+    public enum Workload {
+        GET_ALL, GET_BY_ID, CREATE;
+
+        int send(ActivityService service, long sequence) {
+            return switch (this) {
+                case GET_ALL -> service.fetchAllActivities().getStatusCode();
+                case GET_BY_ID -> service.fetchActivityById((int) (sequence % 30) + 1).getStatusCode();
+                case CREATE -> service.createActivity().getStatusCode();
+            };
+        }
+    }
+
+    // --- Protocol: one JSON message per line, in the order Hello, ClockProbe/ClockReply*, Plan, Report ---
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+    @JsonSubTypes({
+            @JsonSubTypes.Type(value = Hello.class, name = "hello"),
+            @JsonSubTypes.Type(value = ClockProbe.class, name = "clockProbe"),
+            @JsonSubTypes.Type(value = ClockReply.class, name = "clockReply"),
+            @JsonSubTypes.Type(value = Plan.class, name = "plan"),
+            @JsonSubTypes.Type(value = Report.class, name = "report")
+    })
+    public sealed interface Message permits Hello, ClockProbe, ClockReply, Plan, Report {
+    }
+
+    public record Hello(String host, long pid, int cores, long maxHeapBytes) implements Message {
+    }
+
+    public record ClockProbe() implements Message {
+    }
+
+    public record ClockReply(long nowMillis) implements Message {
+    }
+
+    /**
+     * One worker's share of the run; {@code startAtMillis} is already in the worker's clock.
+     */
+    public record Plan(int workerIndex, String baseUrl, Workload workload, double targetRps, long durationMillis,
+                       long startAtMillis) implements Message {
+    }
+
+    /**
+     * A worker's outcome; {@code error} is set instead of the measurements when the run failed.
+     */
+    public record Report(int workerIndex, String host, long sent, long succeeded, long failed, double offeredRps,
+                         double achievedRps, long elapsedMillis, long startSkewMillis,
+                         LatencyHistogram.Encoded latencies, LatencyHistogram.Encoded serviceTimes,
+                         LatencyHistogram.Encoded dispatchLag, String error) implements Message {
+    }
+
+    /**
+     * Newline-delimited JSON over a socket, shared by both ends.
+     */
+    static final class Channel implements Closeable {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+
+        Channel(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        void send(Message message) throws IOException {
+            out.write(MAPPER.writeValueAsString(message));
+            out.newLine();
+            out.flush();
+        }
+
+        <T extends Message> T receive(Class<T> type) throws IOException {
+            String line = in.readLine();
+            if (line == null) {
+                throw new IOException("Connection closed while waiting for " + type.getSimpleName());
+            }
+            Message message = MAPPER.readValue(line, Message.class);
+            if (!type.isInstance(message)) {
+                throw new IOException("Expected " + type.getSimpleName() + " but got " + message);
+            }
+            return type.cast(message);
+        }
+
+        Message receive() throws IOException {
+            String line = in.readLine();
+            if (line == null) {
+                throw new IOException("Connection closed");
+            }
+            return MAPPER.readValue(line, Message.class);
+        }
+
+        void setReadTimeout(Duration timeout) throws IOException {
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, timeout.toMillis()));
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    // --- Worker ---
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1 || !args[0].contains(":")) {
+            System.err.println("Usage: java -cp <test classpath> perf.LoadWorker <coordinator-host:port>");
+            System.exit(2);
+        }
+        String host = args[0].substring(0, args[0].lastIndexOf(':'));
+        int port = Integer.parseInt(args[0].substring(args[0].lastIndexOf(':') + 1));
+
+        try (Channel channel = new Channel(new Socket(host, port))) {
+            String localHost = InetAddress.getLocalHost().getHostName();
+            channel.send(new Hello(localHost, ProcessHandle.current().pid(),
+                    Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory()));
+
+            Message message;
+            while ((message = channel.receive()) instanceof ClockProbe) {
+                channel.send(new ClockReply(System.currentTimeMillis()));
+            }
+            if (!(message instanceof Plan plan)) {
+                throw new IOException("Expected a plan but got " + message);
+            }
+            channel.send(run(plan, localHost));
+        } finally {
+            HttpConnectionPool.shutdown();
+        }
+    }
+
+    private static Report run(Plan plan, String localHost) {
+        log.info("Worker {} on {}: {} at {} req/s for {}ms against {}", plan.workerIndex(), localHost,
+                plan.workload(), plan.targetRps(), plan.durationMillis(), plan.baseUrl());
+        try {
+            RestAssured.baseURI = plan.baseUrl();
+            HttpConnectionPool.install();
+            ActivityService service = new ActivityService(false);
+            AtomicLong sequence = new AtomicLong();
+            ConstantRateLoadGenerator generator = new ConstantRateLoadGenerator(plan.targetRps(),
+                    Duration.ofMillis(plan.durationMillis()), LoadExecutors.unbounded());
+
+            long wait;
+            while ((wait = plan.startAtMillis() - System.currentTimeMillis()) > 0) {
+                LockSupport.parkNanos(Duration.ofMillis(wait).toNanos());
+            }
+            long startSkew = System.currentTimeMillis() - plan.startAtMillis();
+
+            ConstantRateLoadGenerator.Result result = generator.run(
+                    () -> plan.workload().send(service, sequence.getAndIncrement()));
+            log.info("Worker {} finished: {}", plan.workerIndex(), result.summary());
+            return new Report(plan.workerIndex(), localHost, result.sent(), result.succeeded(), result.failed(),
+                    result.offeredRps(), result.achievedRps(), result.elapsed().toMillis(), startSkew,
+                    result.latencies().encode(), result.serviceTimes().encode(), result.dispatchLag().encode(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(plan, localHost, e);
+        } catch (RuntimeException e) {
+            log.error("Worker {} failed", plan.workerIndex(), e);
+            return failed(plan, localHost, e);
+        }
+    }
+
+    private static Report failed(Plan plan, String localHost, Exception e) {
+        return new Report(plan.workerIndex(), localHost, 0, 0, 0, 0, 0, 0, 0, null, null, null, e.toString());
+    }
+}
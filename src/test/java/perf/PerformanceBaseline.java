@@ -0,0 +1,94 @@
+package perf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Local store of per-endpoint latency samples and throughput from earlier runs.
+ *
+ * The file holds one snapshot per environment (target URL, or the stub profile), so a
+ * run is only ever compared with runs against the same kind of server. Raw latency
+ * samples are kept rather than percentiles so the next run can be compared with a rank
+ * test (see {@link RegressionGate}).
+ */
+public final class PerformanceBaseline {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Measurements of one endpoint in one run.
+     */
+    public record Endpoint(double throughputRps, double errorPercent, double[] latenciesMs) {
+    }
+
+    /**
+     * One run's measurements, keyed by endpoint name such as "GET /api/v1/Activities/{id}".
+     */
+    public record Snapshot(String recordedAt, String javaVersion, Map<String, Endpoint> endpoints) {
+
+        public static Snapshot of(Map<String, Endpoint> endpoints) {
+            return new Snapshot(Instant.now().toString(), System.getProperty("java.version"),
+                    new TreeMap<>(endpoints));
+        }
+    }
+
+    private final Path path;
+    private final Map<String, Snapshot> snapshots;
+
+    private PerformanceBaseline(Path path, Map<String, Snapshot> snapshots) {
+        this.path = path;
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Loads the store, or starts an empty one if the file does not exist yet.
+     */
+    public static PerformanceBaseline load(Path path) {
+        if (!Files.exists(path)) {
+            return new PerformanceBaseline(path, new TreeMap<>());
+        }
+        try {
+            Map<String, Snapshot> snapshots = MAPPER.readValue(path.toFile(),
+                    new TypeReference<TreeMap<String, Snapshot>>() {
+                    });
+            return new PerformanceBaseline(path, snapshots);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read performance baseline " + path, e);
+        }
+    }
+
+    /**
+     * The stored snapshot for an environment, or null if it has none yet.
+     */
+    public Snapshot get(String environment) {
+        return snapshots.get(environment);
+    }
+
+    public void put(String environment, Snapshot snapshot) {
+        snapshots.put(environment, snapshot);
+    }
+
+    public void save() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            MAPPER.writeValue(path.toFile(), snapshots);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write performance baseline " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,262 @@
+package perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides whether a run's latencies are significantly worse than the baseline's.
+ *
+ * Each endpoint's samples are compared with a one-sided Mann-Whitney U test (normal
+ * approximation with tie correction), which needs no assumption about the shape of the
+ * latency distribution. A shift only counts as a regression when it is both
+ * statistically significant and large enough to matter: the median must have moved by
+ * more than a relative and an absolute threshold, so tiny but consistent differences on
+ * a fast endpoint do not fail the build.
+ *
+ * The error rate is gated the same way: a one-sided two-proportion z-test on the error
+ * counts plus a minimum increase in percentage points. Throughput is reported but not
+ * gated: the samples are taken one after another, so throughput is just the count over
+ * the summed latencies, one number with no spread to test, and a single outlier call
+ * would move it. The latency test already covers what it measures.
+ */
+public class RegressionGate {
+
+    public enum Verdict { REGRESSED, IMPROVED, UNCHANGED, NEW }
+
+    private final double alpha;
+    private final double minShiftPercent;
+    private final double minShiftMillis;
+    private final double maxErrorIncreasePoints;
+
+    /**
+     * @param alpha                  significance level of the one-sided tests, e.g. 0.01
+     * @param minShiftPercent        smallest median change, relative to the baseline, that counts
+     * @param minShiftMillis         smallest absolute median change that counts
+     * @param maxErrorIncreasePoints largest error rate increase, in percentage points, that passes
+     *                               even when significant
+     */
+    public RegressionGate(double alpha, double minShiftPercent, double minShiftMillis,
+                          double maxErrorIncreasePoints) {
+        this.alpha = alpha;
+        this.minShiftPercent = minShiftPercent;
+        this.minShiftMillis = minShiftMillis;
+        this.maxErrorIncreasePoints = maxErrorIncreasePoints;
+    }
+
+    public static RegressionGate fromSystemProperties() {
+        return new RegressionGate(Double.parseDouble(System.getProperty("perf.baselineAlpha", "0.01")),
+                Double.parseDouble(System.getProperty("perf.baselineMinShiftPercent", "20")),
+                Double.parseDouble(System.getProperty("perf.baselineMinShiftMs", "1.0")),
+                Double.parseDouble(System.getProperty("perf.baselineMaxErrorIncrease", "1.0")));
+    }
+
+    /**
+     * Compares every endpoint of the current run with the baseline; endpoints the
+     * baseline does not have are reported as {@link Verdict#NEW}.
+     *
+     * @throws IllegalArgumentException if an endpoint has no latency samples on either side
+     */
+    public List<Comparison> compare(PerformanceBaseline.Snapshot baseline,
+                                    Map<String, PerformanceBaseline.Endpoint> current) {
+        List<Comparison> comparisons = new ArrayList<>();
+        current.forEach((endpoint, now) -> {
+            PerformanceBaseline.Endpoint before = baseline == null ? null : baseline.endpoints().get(endpoint);
+            requireSamples(endpoint, "current run", now);
+            if (before == null) {
+                comparisons.add(new Comparison(endpoint, Verdict.NEW, List.of(), null, now, Double.NaN, Double.NaN,
+                        Double.NaN, Double.NaN, Double.NaN));
+            } else {
+                requireSamples(endpoint, "baseline", before);
+                comparisons.add(compare(endpoint, before, now));
+            }
+        });
+        return comparisons;
+    }
+
+    private static void requireSamples(String endpoint, String side, PerformanceBaseline.Endpoint measured) {
+        if (measured.latenciesMs() == null || measured.latenciesMs().length == 0) {
+            throw new IllegalArgumentException("No latency samples for " + endpoint + " in the " + side);
+        }
+    }
+
+    private Comparison compare(String endpoint, PerformanceBaseline.Endpoint before,
+                               PerformanceBaseline.Endpoint now) {
+        double[] baselineSamples = before.latenciesMs();
+        double[] currentSamples = now.latenciesMs();
+        double u = mannWhitneyU(currentSamples, baselineSamples);
+        double pSlower = pGreater(u, currentSamples, baselineSamples);
+        double pFaster = pGreater(currentSamples.length * (double) baselineSamples.length - u,
+                currentSamples, baselineSamples);
+
+        double baselineMedian = median(baselineSamples);
+        double shiftMillis = median(currentSamples) - baselineMedian;
+        double shiftPercent = baselineMedian == 0 ? 0 : shiftMillis / baselineMedian * 100;
+        boolean material = Math.abs(shiftPercent) > minShiftPercent && Math.abs(shiftMillis) > minShiftMillis;
+
+        List<String> regressed = new ArrayList<>();
+        if (material && shiftMillis > 0 && pSlower < alpha) {
+            regressed.add("latency");
+        }
+        double errorPValue = pMoreErrors(now, before);
+        if (now.errorPercent() - before.errorPercent() > maxErrorIncreasePoints && errorPValue < alpha) {
+            regressed.add("errors");
+        }
+
+        Verdict verdict = Verdict.UNCHANGED;
+        if (!regressed.isEmpty()) {
+            verdict = Verdict.REGRESSED;
+        } else if (material && shiftMillis < 0 && pFaster < alpha) {
+            verdict = Verdict.IMPROVED;
+        }
+        double superiority = u / (currentSamples.length * (double) baselineSamples.length);
+        return new Comparison(endpoint, verdict, List.copyOf(regressed), before, now, shiftMillis, shiftPercent,
+                shiftMillis >= 0 ? pSlower : pFaster, superiority, errorPValue);
+    }
+
+    /**
+     * One-sided two-proportion z-test: p-value that {@code now} fails more often than
+     * {@code before}, with error counts recovered from the rates and sample counts.
+     */
+    static double pMoreErrors(PerformanceBaseline.Endpoint now, PerformanceBaseline.Endpoint before) {
+        double n1 = now.latenciesMs().length;
+        double n2 = before.latenciesMs().length;
+        double errors1 = Math.round(now.errorPercent() / 100 * n1);
+        double errors2 = Math.round(before.errorPercent() / 100 * n2);
+        double pooled = (errors1 + errors2) / (n1 + n2);
+        double standardError = Math.sqrt(pooled * (1 - pooled) * (1 / n1 + 1 / n2));
+        if (standardError == 0) {
+            return 1.0;
+        }
+        return 1 - normalCdf((errors1 / n1 - errors2 / n2) / standardError);
+    }
+
+    /**
+     * U statistic of {@code a} against {@code b}: how many (a, b) pairs have a > b, ties
+     * counting one half.
+     */
+    static double mannWhitneyU(double[] a, double[] b) {
+        double[] ranks = ranks(a, b);
+        double rankSumA = 0;
+        for (int i = 0; i < a.length; i++) {
+            rankSumA += ranks[i];
+        }
+        return rankSumA - a.length * (a.length + 1) / 2.0;
+    }
+
+    /**
+     * One-sided p-value that values in {@code a} tend to be larger than in {@code b},
+     * given U for a, with continuity and tie correction.
+     */
+    static double pGreater(double u, double[] a, double[] b) {
+        double n1 = a.length;
+        double n2 = b.length;
+        double n = n1 + n2;
+        double mean = n1 * n2 / 2;
+        double variance = n1 * n2 / 12 * ((n + 1) - tieTerm(a, b) / (n * (n - 1)));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    /**
+     * Average ranks (1-based) of the pooled samples, a's first then b's.
+     */
+    private static double[] ranks(double[] a, double[] b) {
+        int n = a.length + b.length;
+        Integer[] order = new Integer[n];
+        double[] pooled = new double[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            pooled[i] = i < a.length ? a[i] : b[i - a.length];
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(pooled[x], pooled[y]));
+        double[] ranks = new double[n];
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && pooled[order[j + 1]] == pooled[order[i]]) {
+                j++;
+            }
+            double averageRank = (i + j) / 2.0 + 1;
+            for (int k = i; k <= j; k++) {
+                ranks[order[k]] = averageRank;
+            }
+            i = j + 1;
+        }
+        return ranks;
+    }
+
+    /**
+     * Sum of t^3 - t over groups of tied values.
+     */
+    private static double tieTerm(double[] a, double[] b) {
+        double[] pooled = new double[a.length + b.length];
+        System.arraycopy(a, 0, pooled, 0, a.length);
+        System.arraycopy(b, 0, pooled, a.length, b.length);
+        Arrays.sort(pooled);
+        double term = 0;
+        for (int i = 0; i < pooled.length; ) {
+            int j = i;
+            while (j + 1 < pooled.length && pooled[j + 1] == pooled[i]) {
+                j++;
+            }
+            double t = j - i + 1;
+            term += t * t * t - t;
+            i = j + 1;
+        }
+        return term;
+    }
+
+    /**
+     * Standard normal CDF via the Abramowitz-Stegun erf approximation (error below 1.5e-7).
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t
+                + 0.254829592) * t * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    static double median(double[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Median of no values");
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+
+    /**
+     * One endpoint's diff against the baseline.
+     *
+     * @param regressed   metrics that failed the gate: "latency" and/or "errors"
+     * @param pValue      one-sided p-value in the direction of the median shift
+     * @param superiority probability that a current sample is slower than a baseline one
+     * @param errorPValue one-sided p-value that the error rate went up
+     */
+    public record Comparison(String endpoint, Verdict verdict, List<String> regressed,
+                             PerformanceBaseline.Endpoint baseline, PerformanceBaseline.Endpoint current,
+                             double medianShiftMillis, double medianShiftPercent, double pValue, double superiority,
+                             double errorPValue) {
+
+        public String summary() {
+            if (verdict == Verdict.NEW) {
+                return String.format("%s: NEW | median=%.3fms %.1f req/s (no baseline yet)", endpoint,
+                        median(current.latenciesMs()), current.throughputRps());
+            }
+            double throughputChange = baseline.throughputRps() == 0 ? 0
+                    : (current.throughputRps() / baseline.throughputRps() - 1) * 100;
+            return String.format("%s: %s%s | median %.3fms -> %.3fms (%+.3fms, %+.1f%%) p=%.4f P(slower)=%.2f "
+                            + "| throughput %.1f -> %.1f req/s (%+.1f%%) | errors %.1f%% -> %.1f%% p=%.4f",
+                    endpoint, verdict, regressed.isEmpty() ? "" : " " + regressed, median(baseline.latenciesMs()),
+                    median(current.latenciesMs()), medianShiftMillis, medianShiftPercent, pValue, superiority,
+                    baseline.throughputRps(), current.throughputRps(), throughputChange, baseline.errorPercent(),
+                    current.errorPercent(), errorPValue);
+        }
+    }
+}
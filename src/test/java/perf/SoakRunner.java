@@ -0,0 +1,288 @@
+package perf;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Endurance run: a constant arrival rate held for a long time, summarized per window.
+ *
+ * Each window (default 10s) reports its own throughput, latency percentiles and error
+ * rate together with a snapshot of the client's heap, threads, sockets and GC pauses.
+ * Only the per-window numbers are kept, so an hours-long run uses a few hundred bytes
+ * per window. At the end the trend of latency is compared with the trend of client
+ * resources to say whether drift comes from the server or from the harness itself.
+ */
+public class SoakRunner {
+
+    private static final Logger log = LogManager.getLogger(SoakRunner.class);
+
+    // Fewer windows than this are too noisy to call drift
+    private static final int MIN_WINDOWS_FOR_VERDICT = 8;
+    // Growth over the run above these counts as drift
+    private static final double LATENCY_DRIFT_PERCENT = 20.0;
+    private static final double HEAP_GROWTH_PERCENT = 20.0;
+    private static final int THREAD_GROWTH = 10;
+    private static final int SOCKET_GROWTH = 10;
+    // gcAction of ZGC and Shenandoah notifications covering a whole concurrent cycle;
+    // their pauses, and every other collector's collections, arrive as separate actions
+    private static final String CONCURRENT_CYCLE_ACTION = "end of GC cycle";
+
+    private final double targetRps;
+    private final Duration duration;
+    private final Duration window;
+    private final ExecutorService executor;
+
+    /**
+     * @param executor runs the requests, as for {@link ConstantRateLoadGenerator}; shut down when the run ends
+     */
+    public SoakRunner(double targetRps, Duration duration, Duration window, ExecutorService executor) {
+        if (window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.targetRps = targetRps;
+        this.duration = duration;
+        this.window = window;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the soak, passing each window to {@code onWindow} as soon as it closes.
+     */
+    public Result run(ConstantRateLoadGenerator.Request request, Consumer<Window> onWindow)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicReference<Accumulator> current = new AtomicReference<>(new Accumulator());
+        List<Window> windows = new ArrayList<>();
+
+        Runnable closeWindow = () -> {
+            Accumulator closing = current.getAndSet(new Accumulator());
+            closing.awaitRecorders();
+            Window closed = closing.close(windows.size(), start);
+            synchronized (windows) {
+                windows.add(closed);
+            }
+            log.info("Soak window {}: {}", closed.index(), closed.summary());
+            onWindow.accept(closed);
+        };
+
+        ScheduledExecutorService roller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soak-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Runnable> gcListeners = listenForGcPauses(current);
+        ConstantRateLoadGenerator.Result overall;
+        try {
+            roller.scheduleAtFixedRate(closeWindow, window.toNanos(), window.toNanos(), TimeUnit.NANOSECONDS);
+            overall = new ConstantRateLoadGenerator(targetRps, duration, executor).run(request,
+                    (latencyNanos, serviceNanos, succeeded) -> recordInto(current,
+                            accumulator -> accumulator.record(latencyNanos, succeeded)));
+        } finally {
+            roller.shutdown();
+            roller.awaitTermination(window.toSeconds() + 5, TimeUnit.SECONDS);
+            gcListeners.forEach(Runnable::run);
+        }
+        // The last, partial window; a short tail would only skew per-window rates
+        Accumulator tail = current.get();
+        if (tail.completed() > 0 && System.nanoTime() - tail.openedAt >= window.toNanos() / 2) {
+            closeWindow.run();
+        }
+        return new Result(overall, List.copyOf(windows));
+    }
+
+    /**
+     * Runs {@code recorder} against the open window. A recorder that picked up a window
+     * just as it was swapped out retries on the new one, and the closer waits for
+     * recorders already inside, so no sample is lost between windows.
+     */
+    private static void recordInto(AtomicReference<Accumulator> current, Consumer<Accumulator> recorder) {
+        while (true) {
+            Accumulator accumulator = current.get();
+            if (accumulator.recorders.register() >= 0) {
+                try {
+                    recorder.accept(accumulator);
+                } finally {
+                    accumulator.recorders.arriveAndDeregister();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records stop-the-world GC pause durations into whichever window is open. Pauses are
+     * told apart by the notification's gcAction rather than the collector name: ZGC and
+     * Shenandoah report each concurrent cycle as "end of GC cycle" next to its individual
+     * pauses, while minor and major collections of the other collectors are pauses.
+     */
+    private static List<Runnable> listenForGcPauses(AtomicReference<Accumulator> current) {
+        List<Runnable> removers = new ArrayList<>();
+        NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                // Concurrent cycles report their whole duration, which is not a pause
+                if (!CONCURRENT_CYCLE_ACTION.equals(info.getGcAction())) {
+                    long pauseMillis = info.getGcInfo().getDuration();
+                    recordInto(current, accumulator -> accumulator.gcPauses.recordMillis(pauseMillis));
+                }
+            }
+        };
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                removers.add(() -> {
+                    try {
+                        emitter.removeNotificationListener(listener);
+                    } catch (ListenerNotFoundException ignored) {
+                        // already removed
+                    }
+                });
+            }
+        }
+        return removers;
+    }
+
+    private static final class Accumulator {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LatencyHistogram gcPauses = new LatencyHistogram();
+        final LongAdder failed = new LongAdder();
+        final long openedAt = System.nanoTime();
+        // One party for the closer plus one per recorder inside; terminates once the
+        // closer has left and the last recorder is out, after which register() fails
+        final Phaser recorders = new Phaser(1);
+
+        void awaitRecorders() {
+            recorders.awaitAdvance(recorders.arriveAndDeregister());
+        }
+
+        void record(long latencyNanos, boolean succeeded) {
+            latencies.recordNanos(latencyNanos);
+            if (!succeeded) {
+                failed.increment();
+            }
+        }
+
+        long completed() {
+            return latencies.getTotalCount();
+        }
+
+        Window close(int index, long runStart) {
+            long closedAt = System.nanoTime();
+            double seconds = Math.max(1, closedAt - openedAt) / 1_000_000_000.0;
+            long completed = completed();
+            return new Window(index, (openedAt - runStart) / 1_000_000_000.0, seconds, completed,
+                    failed.sum(), completed / seconds,
+                    latencies.percentileMillis(50), latencies.percentileMillis(99), latencies.getMaxMicros() / 1_000.0,
+                    gcPauses.getTotalCount(), gcPauses.getMaxMicros() / 1_000.0, ClientResources.capture());
+        }
+    }
+
+    /**
+     * One closed window; latencies are measured from intended start (coordinated-omission corrected).
+     */
+    public record Window(int index, double startSeconds, double lengthSeconds, long completed, long failed,
+                         double throughputRps, double p50Millis, double p99Millis, double maxMillis,
+                         long gcPauses, double maxGcPauseMillis, ClientResources client) {
+
+        public double errorRatePercent() {
+            return completed == 0 ? 0 : (double) failed / completed * 100;
+        }
+
+        public String summary() {
+            return String.format("t=%.0fs %.1f req/s errors=%.2f%% p50=%.2fms p99=%.2fms max=%.2fms "
+                            + "| gc pauses=%d max=%.1fms | %s",
+                    startSeconds, throughputRps, errorRatePercent(), p50Millis, p99Millis, maxMillis,
+                    gcPauses, maxGcPauseMillis, client.summary());
+        }
+    }
+
+    /**
+     * Whole-run result plus the per-window series and a drift verdict.
+     */
+    public record Result(ConstantRateLoadGenerator.Result overall, List<Window> windows) {
+
+        /**
+         * Median p99 of the last quarter of windows relative to the first quarter, in percent.
+         */
+        public double latencyDriftPercent() {
+            double first = medianP99(0, quarter());
+            double last = medianP99(windows.size() - quarter(), windows.size());
+            return first == 0 ? 0 : (last - first) / first * 100;
+        }
+
+        public double heapGrowthPercent() {
+            long first = windows.get(0).client().heapAfterGcBytes();
+            long last = windows.get(windows.size() - 1).client().heapAfterGcBytes();
+            return first == 0 ? 0 : (double) (last - first) / first * 100;
+        }
+
+        public int threadGrowth() {
+            return windows.get(windows.size() - 1).client().threads() - windows.get(0).client().threads();
+        }
+
+        public int socketGrowth() {
+            return windows.get(windows.size() - 1).client().openSockets() - windows.get(0).client().openSockets();
+        }
+
+        public boolean clientGrowing() {
+            return heapGrowthPercent() > HEAP_GROWTH_PERCENT || threadGrowth() > THREAD_GROWTH
+                    || socketGrowth() > SOCKET_GROWTH;
+        }
+
+        public boolean isJudged() {
+            return windows.size() >= MIN_WINDOWS_FOR_VERDICT;
+        }
+
+        public String verdict() {
+            if (!isJudged()) {
+                return "too few windows to judge drift (need " + MIN_WINDOWS_FOR_VERDICT + ")";
+            }
+            boolean latencyDrift = latencyDriftPercent() > LATENCY_DRIFT_PERCENT;
+            if (clientGrowing()) {
+                return latencyDrift
+                        ? "latency drift with client resource growth - suspect the harness first"
+                        : "client resource growth without latency drift - possible harness leak";
+            }
+            return latencyDrift ? "latency drift with flat client resources - server-side" : "stable";
+        }
+
+        public String summary() {
+            if (windows.isEmpty()) {
+                return "no windows completed";
+            }
+            return String.format("%d windows | p99 drift %+.1f%% | client heap after GC %+.1f%% threads %+d "
+                            + "sockets %+d | verdict: %s",
+                    windows.size(), latencyDriftPercent(), heapGrowthPercent(), threadGrowth(), socketGrowth(),
+                    verdict());
+        }
+
+        private int quarter() {
+            return Math.max(1, windows.size() / 4);
+        }
+
+        private double medianP99(int from, int to) {
+            double[] values = windows.subList(from, to).stream().mapToDouble(Window::p99Millis).sorted().toArray();
+            return values[values.length / 2];
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package perf;
+
+import com.sun.management.OperatingSystemMXBean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Steady-state closed-loop throughput measurement.
+ *
+ * N workers send requests back to back for the whole run. Completions are sampled in
+ * short intervals during warmup until the last few intervals agree within a tolerance
+ * (or the warmup limit is hit), so JIT compilation and connection setup are left out.
+ * Only requests that both start and finish within the measurement phase are counted.
+ * The measurement phase is then split into equal batches; the batch rates give the mean
+ * throughput with a 95% confidence interval (batch means), and each worker's own rate
+ * plus the client's CPU load show whether the client or the server is the limit.
+ */
+public class ThroughputEngine {
+
+    private static final Logger log = LogManager.getLogger(ThroughputEngine.class);
+
+    // Warmup is steady once this many consecutive intervals vary by less than STEADY_CV
+    private static final int STEADY_INTERVALS = 4;
+    private static final double STEADY_CV = 0.10;
+    private static final double CLIENT_BOUND_CPU_PERCENT = 85.0;
+
+    private final int workers;
+    private final Duration maxWarmup;
+    private final Duration sampleInterval;
+    private final Duration measurement;
+    private final int batches;
+
+    public ThroughputEngine(int workers, Duration maxWarmup, Duration sampleInterval, Duration measurement,
+                            int batches) {
+        if (workers < 1 || batches < 2) {
+            throw new IllegalArgumentException("Need at least 1 worker and 2 batches");
+        }
+        this.workers = workers;
+        this.maxWarmup = maxWarmup;
+        this.sampleInterval = sampleInterval;
+        this.measurement = measurement;
+        this.batches = batches;
+    }
+
+    public Result run(ConstantRateLoadGenerator.Request request) throws InterruptedException {
+        LongAdder[] completedByWorker = new LongAdder[workers];
+        LongAdder[] failedByWorker = new LongAdder[workers];
+        LatencyHistogram latencies = new LatencyHistogram();
+        Phase phase = new Phase();
+
+        ExecutorService executor = LoadExecutors.forUsers(workers);
+        for (int w = 0; w < workers; w++) {
+            LongAdder completed = completedByWorker[w] = new LongAdder();
+            LongAdder failed = failedByWorker[w] = new LongAdder();
+            executor.execute(() -> {
+                while (!phase.stopped) {
+                    // Read before sending: a request that began during warmup must not count
+                    boolean startedMeasuring = phase.measuring;
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        int status = request.send();
+                        ok = status >= 200 && status < 300;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    if (startedMeasuring && phase.measuring) {
+                        latencies.recordNanos(System.nanoTime() - start);
+                        completed.increment();
+                        if (!ok) {
+                            failed.increment();
+                        }
+                    }
+                    phase.allCompletions.increment();
+                }
+            });
+        }
+
+        try {
+            // --- Warmup until steady ---
+            long warmupStart = System.nanoTime();
+            double[] recent = new double[STEADY_INTERVALS];
+            int intervals = 0;
+            boolean steady = false;
+            long previous = 0;
+            while (System.nanoTime() - warmupStart < maxWarmup.toNanos()) {
+                TimeUnit.NANOSECONDS.sleep(sampleInterval.toNanos());
+                long total = phase.allCompletions.sum();
+                recent[intervals++ % STEADY_INTERVALS] = total - previous;
+                previous = total;
+                if (intervals >= STEADY_INTERVALS && coefficientOfVariation(recent) < STEADY_CV && previous > 0) {
+                    steady = true;
+                    break;
+                }
+            }
+            Duration warmup = Duration.ofNanos(System.nanoTime() - warmupStart);
+            log.info("Throughput warmup {} after {}ms", steady ? "reached steady state" : "hit its limit",
+                    warmup.toMillis());
+
+            // --- Measurement in batches ---
+            OperatingSystemMXBean os = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+            long cpuStart = os.getProcessCpuTime();
+            double[] batchRps = new double[batches];
+            long batchNanos = measurement.toNanos() / batches;
+            phase.measuring = true;
+            long measureStart = System.nanoTime();
+            long batchStart = measureStart;
+            long batchStartCount = 0;
+            for (int b = 0; b < batches; b++) {
+                TimeUnit.NANOSECONDS.sleep(Math.max(0, measureStart + (b + 1) * batchNanos - System.nanoTime()));
+                long now = System.nanoTime();
+                long count = sum(completedByWorker);
+                batchRps[b] = (count - batchStartCount) / ((now - batchStart) / 1_000_000_000.0);
+                batchStart = now;
+                batchStartCount = count;
+            }
+            phase.measuring = false;
+            double measuredSeconds = (System.nanoTime() - measureStart) / 1_000_000_000.0;
+            double cpuPercent = (os.getProcessCpuTime() - cpuStart) / 1e9 / measuredSeconds
+                    / os.getAvailableProcessors() * 100;
+
+            double[] workerRps = new double[workers];
+            for (int w = 0; w < workers; w++) {
+                workerRps[w] = completedByWorker[w].sum() / measuredSeconds;
+            }
+            return new Result(workers, warmup, steady, batchRps, workerRps, sum(completedByWorker),
+                    sum(failedByWorker), latencies, cpuPercent);
+        } finally {
+            phase.stopped = true;
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class Phase {
+        volatile boolean measuring;
+        volatile boolean stopped;
+        final LongAdder allCompletions = new LongAdder();
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long total = 0;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private static double coefficientOfVariation(double[] values) {
+        double mean = Arrays.stream(values).average().orElse(0);
+        return mean == 0 ? Double.MAX_VALUE : Math.sqrt(variance(values)) / mean;
+    }
+
+    private static double variance(double[] values) {
+        double mean = Arrays.stream(values).average().orElse(0);
+        double sumSquares = 0;
+        for (double value : values) {
+            sumSquares += (value - mean) * (value - mean);
+        }
+        return sumSquares / (values.length - 1);
+    }
+
+    /**
+     * Two-sided 95% Student t critical values for 1..30 degrees of freedom.
+     */
+    private static final double[] T_95 = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064, 2.060,
+            2.056, 2.052, 2.048, 2.045, 2.042};
+
+    static double tCritical95(int degreesOfFreedom) {
+        return degreesOfFreedom <= T_95.length ? T_95[degreesOfFreedom - 1] : 1.96;
+    }
+
+    /**
+     * @param batchRps  throughput of each measurement batch
+     * @param workerRps throughput of each worker over the whole measurement
+     */
+    public record Result(int workers, Duration warmup, boolean steadyStateReached, double[] batchRps,
+                         double[] workerRps, long completed, long failed, LatencyHistogram latencies,
+                         double clientCpuPercent) {
+
+        public double meanRps() {
+            return Arrays.stream(batchRps).average().orElse(0);
+        }
+
+        /**
+         * Half-width of the 95% confidence interval of the mean throughput.
+         */
+        public double confidenceHalfWidth() {
+            return tCritical95(batchRps.length - 1) * Math.sqrt(variance(batchRps) / batchRps.length);
+        }
+
+        public double errorRatePercent() {
+            return completed == 0 ? 0 : (double) failed / completed * 100;
+        }
+
+        /**
+         * With the client's CPU near its limit, adding workers cannot raise throughput, so
+         * the measured rate says more about the harness than the server.
+         */
+        public boolean clientBound() {
+            return clientCpuPercent >= CLIENT_BOUND_CPU_PERCENT;
+        }
+
+        public String summary() {
+            return String.format("%.1f req/s +/- %.1f (95%% CI, %d batches) | %d workers | warmup %dms%s "
+                            + "| completed=%d errors=%.2f%% | client CPU %.0f%% (%s)",
+                    meanRps(), confidenceHalfWidth(), batchRps.length, workers, warmup.toMillis(),
+                    steadyStateReached ? " (steady)" : " (limit reached, not steady)", completed,
+                    errorRatePercent(), clientCpuPercent, clientBound() ? "client-bound" : "server-bound");
+        }
+
+        public String perWorkerSummary() {
+            DoubleSummaryStatistics stats = Arrays.stream(workerRps).summaryStatistics();
+            // A worker waiting on nothing but the server would manage 1 / mean latency
+            double latencyBoundRps = latencies.getMeanMicros() == 0 ? 0 : 1_000_000.0 / latencies.getMeanMicros();
+            return String.format("per worker min=%.1f mean=%.1f max=%.1f req/s (1/mean latency = %.1f req/s)",
+                    stats.getMin(), stats.getAverage(), stats.getMax(), latencyBoundRps);
+        }
+    }
+}
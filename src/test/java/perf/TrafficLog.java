@@ -0,0 +1,209 @@
+package perf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compact append-only binary log of HTTP traffic, written and read through memory-mapped
+ * file segments.
+ *
+ * Layout: a 16-byte header (magic, version, capture start in epoch millis) followed by
+ * length-prefixed records, each holding the request's start offset from the beginning of
+ * the capture, its latency, status, method code, path and body. Records never straddle a
+ * segment boundary; an unused segment tail is left as zeros, which readers skip. Mapped
+ * pages are zero-filled and each record's length is written only after its contents, so
+ * a record cut short by a crash still has a zero length and a capture reads back up to
+ * its last complete record.
+ */
+public final class TrafficLog {
+
+    public static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final int MAGIC = 0x41545246; // "ATRF"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    // offset(8) latency(8) status(2) method(1) pathLength(2) bodyLength(4)
+    private static final int FIXED_RECORD_BYTES = 25;
+    private static final List<String> METHODS = List.of("GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS");
+
+    private TrafficLog() {
+    }
+
+    /**
+     * One captured exchange; {@code offsetNanos} is when the request started, measured
+     * from the beginning of the capture.
+     */
+    public record Entry(long offsetNanos, String method, String path, byte[] body, int status, long latencyNanos) {
+    }
+
+    // --- Writing ---
+
+    public static final class Writer implements AutoCloseable {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final long startNanos = System.nanoTime();
+        private MappedByteBuffer segment;
+        private long segmentStart;
+        private long records;
+        private long appendNanos;
+        private boolean closed;
+
+        public Writer(Path path) {
+            this.path = path;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open traffic log " + path, e);
+            }
+            segment.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(System.currentTimeMillis());
+        }
+
+        /**
+         * Appends one exchange; ignored once the writer is closed. Appends are serialized:
+         * records must be published in file order for a zero length to mean "nothing
+         * follows", and holding the lock costs about as much as copying the record.
+         *
+         * @param requestStartNanos {@link System#nanoTime()} when the request started
+         */
+        public synchronized void append(long requestStartNanos, String method, String requestPath, byte[] body,
+                                        int status, long latencyNanos) {
+            if (closed) {
+                return;
+            }
+            long start = System.nanoTime();
+            int methodCode = METHODS.indexOf(method.toUpperCase());
+            if (methodCode < 0) {
+                throw new IllegalArgumentException("Unsupported method for traffic log: " + method);
+            }
+            byte[] pathBytes = requestPath.getBytes(StandardCharsets.UTF_8);
+            byte[] bodyBytes = body == null ? new byte[0] : body;
+            int length = FIXED_RECORD_BYTES + pathBytes.length + bodyBytes.length;
+            if (Integer.BYTES + length > SEGMENT_BYTES - HEADER_BYTES) {
+                throw new IllegalArgumentException("Exchange of " + length + " bytes is too large for the traffic log");
+            }
+            if (segment.remaining() < Integer.BYTES + length) {
+                nextSegment();
+            }
+            int lengthSlot = segment.position();
+            segment.position(lengthSlot + Integer.BYTES)
+                    .putLong(requestStartNanos - startNanos)
+                    .putLong(latencyNanos)
+                    .putShort((short) status)
+                    .put((byte) methodCode)
+                    .putShort((short) pathBytes.length)
+                    .put(pathBytes)
+                    .putInt(bodyBytes.length)
+                    .put(bodyBytes);
+            // Published last, so a half-written record still reads as the zero tail
+            segment.putInt(lengthSlot, length);
+            records++;
+            appendNanos += System.nanoTime() - start;
+        }
+
+        private void nextSegment() {
+            segmentStart += SEGMENT_BYTES;
+            try {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, SEGMENT_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not extend traffic log " + path, e);
+            }
+        }
+
+        public synchronized long getRecordCount() {
+            return records;
+        }
+
+        public synchronized long getBytesWritten() {
+            return segmentStart + segment.position();
+        }
+
+        public synchronized String summary() {
+            return String.format("%d exchanges, %d bytes, append avg=%.0fns", records, getBytesWritten(),
+                    records == 0 ? 0.0 : (double) appendNanos / records);
+        }
+
+        /**
+         * Flushes the mapped pages and trims the file to what was written.
+         */
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long size = getBytesWritten();
+            segment.force();
+            try (channel) {
+                channel.truncate(size);
+            } catch (IOException e) {
+                // Some platforms refuse to truncate a mapped file; readers skip the zero tail anyway
+            }
+        }
+    }
+
+    // --- Reading ---
+
+    /**
+     * Streams every complete record in file order, mapping one segment at a time.
+     *
+     * @return the capture start time in epoch millis, from the header
+     */
+    public static long read(Path path, Consumer<Entry> action) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long captureStartMillis = 0;
+            for (long segmentStart = 0; segmentStart < size; segmentStart += SEGMENT_BYTES) {
+                ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart,
+                        Math.min(SEGMENT_BYTES, size - segmentStart));
+                if (segmentStart == 0) {
+                    if (segment.remaining() < HEADER_BYTES || segment.getInt() != MAGIC) {
+                        throw new IllegalArgumentException(path + " is not a traffic log");
+                    }
+                    short version = segment.getShort();
+                    if (version != VERSION) {
+                        throw new IllegalArgumentException("Unsupported traffic log version " + version);
+                    }
+                    segment.getShort();
+                    captureStartMillis = segment.getLong();
+                }
+                while (segment.remaining() >= Integer.BYTES) {
+                    int length = segment.getInt();
+                    if (length == 0) {
+                        break; // unused tail of this segment
+                    }
+                    if (length < FIXED_RECORD_BYTES || length > segment.remaining()) {
+                        return captureStartMillis; // cut short by a crash
+                    }
+                    action.accept(readEntry(segment));
+                }
+            }
+            return captureStartMillis;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read traffic log " + path, e);
+        }
+    }
+
+    private static Entry readEntry(ByteBuffer segment) {
+        long offsetNanos = segment.getLong();
+        long latencyNanos = segment.getLong();
+        int status = Short.toUnsignedInt(segment.getShort());
+        String method = METHODS.get(segment.get());
+        byte[] pathBytes = new byte[Short.toUnsignedInt(segment.getShort())];
+        segment.get(pathBytes);
+        byte[] body = new byte[segment.getInt()];
+        segment.get(body);
+        return new Entry(offsetNanos, method, new String(pathBytes, StandardCharsets.UTF_8), body, status,
+                latencyNanos);
+    }
+}
@@ -0,0 +1,190 @@
+package perf;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a {@link TrafficLog} against a target with the captured pacing.
+ *
+ * Each exchange is released at its original offset from the earliest one divided by the
+ * speed factor, so 1.0 reproduces the recorded arrival pattern (bursts and gaps
+ * included) and 10.0 compresses it tenfold. Like {@link ConstantRateLoadGenerator} this
+ * is an open model: a slow target does not delay later requests, and latency is
+ * measured from each request's intended start.
+ *
+ * A capture is written as exchanges complete, so under concurrency a slow request that
+ * started early sits behind faster ones that overtook it. Entries are therefore merged
+ * back into start order through a reorder window: once an entry that completed at c has
+ * been read, no later entry can have started before c minus the window, as long as no
+ * captured latency exceeds it. Only the entries inside the window are held in memory.
+ */
+public class TrafficReplayer {
+
+    private static final Logger log = LogManager.getLogger(TrafficReplayer.class);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    // Twice the default read timeout, so no captured exchange can outlast it
+    public static final Duration DEFAULT_REORDER_WINDOW = Duration.ofSeconds(60);
+
+    /**
+     * Sends one captured request; returns the HTTP status code.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        int send(String method, String path, byte[] body) throws Exception;
+    }
+
+    private final double speed;
+    private final ExecutorService executor;
+    private final long reorderWindowNanos;
+
+    public TrafficReplayer(double speed, ExecutorService executor) {
+        this(speed, executor, DEFAULT_REORDER_WINDOW);
+    }
+
+    /**
+     * @param executor      runs the requests; as for {@link ConstantRateLoadGenerator} it must not
+     *                      bound concurrency, and it is shut down when the replay completes
+     * @param reorderWindow longest captured latency that is still put back in start order
+     */
+    public TrafficReplayer(double speed, ExecutorService executor, Duration reorderWindow) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Speed must be positive: " + speed);
+        }
+        this.speed = speed;
+        this.executor = executor;
+        this.reorderWindowNanos = reorderWindow.toNanos();
+    }
+
+    public Result replay(Path trafficLog, Sender sender) throws InterruptedException {
+        Run run = new Run(sender);
+        PriorityQueue<TrafficLog.Entry> pending =
+                new PriorityQueue<>(Comparator.comparingLong(TrafficLog.Entry::offsetNanos));
+
+        TrafficLog.read(trafficLog, entry -> {
+            run.recordedLatencies.recordNanos(entry.latencyNanos());
+            run.firstOffset = Math.min(run.firstOffset, entry.offsetNanos());
+            run.lastOffset = Math.max(run.lastOffset, entry.offsetNanos());
+            pending.add(entry);
+            long completedAt = entry.offsetNanos() + entry.latencyNanos();
+            while (pending.peek().offsetNanos() < completedAt - reorderWindowNanos) {
+                run.dispatch(pending.poll());
+            }
+        });
+        while (!pending.isEmpty()) {
+            run.dispatch(pending.poll());
+        }
+        long dispatchEnd = System.nanoTime();
+
+        executor.shutdown();
+        if (!executor.awaitTermination(DRAIN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            log.warn("Replayed requests still in flight after {}s drain timeout", DRAIN_TIMEOUT.toSeconds());
+        }
+        if (run.outOfWindow > 0) {
+            log.warn("{} captured exchanges started more than {}ms before ones already replayed; they were sent late",
+                    run.outOfWindow, reorderWindowNanos / 1_000_000);
+        }
+        Duration recordedSpan = Duration.ofNanos(Math.max(0, run.lastOffset - run.firstOffset));
+        return new Result(speed, run.recordedLatencies.getTotalCount(), run.succeeded.sum(), run.failed.sum(),
+                run.statusMismatches.sum(), recordedSpan, Duration.ofNanos(dispatchEnd - run.start),
+                Duration.ofNanos(System.nanoTime() - run.start), run.latencies, run.recordedLatencies,
+                run.dispatchLag);
+    }
+
+    /**
+     * State of one replay; entries are dispatched from the reading thread in start order.
+     */
+    private final class Run {
+
+        final Sender sender;
+        final long start = System.nanoTime();
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LatencyHistogram recordedLatencies = new LatencyHistogram();
+        final LatencyHistogram dispatchLag = new LatencyHistogram();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder statusMismatches = new LongAdder();
+        long firstOffset = Long.MAX_VALUE;
+        long lastOffset = Long.MIN_VALUE;
+        // Replay time zero is the offset of the first entry released, the earliest start
+        long origin = -1;
+        long lastDispatched = Long.MIN_VALUE;
+        long outOfWindow;
+
+        Run(Sender sender) {
+            this.sender = sender;
+        }
+
+        void dispatch(TrafficLog.Entry entry) {
+            if (origin < 0) {
+                origin = entry.offsetNanos();
+            }
+            if (entry.offsetNanos() < lastDispatched) {
+                outOfWindow++;
+            }
+            lastDispatched = Math.max(lastDispatched, entry.offsetNanos());
+
+            long intendedStart = start + (long) ((entry.offsetNanos() - origin) / speed);
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            dispatchLag.recordNanos(System.nanoTime() - intendedStart);
+
+            executor.execute(() -> {
+                boolean ok = false;
+                try {
+                    int status = sender.send(entry.method(), entry.path(), entry.body());
+                    ok = status >= 200 && status < 300;
+                    if (status != entry.status()) {
+                        statusMismatches.increment();
+                    }
+                } catch (Exception e) {
+                    statusMismatches.increment();
+                } finally {
+                    (ok ? succeeded : failed).increment();
+                    latencies.recordNanos(System.nanoTime() - intendedStart);
+                }
+            });
+        }
+    }
+
+    /**
+     * Outcome of a replay. {@code latencies} are measured from intended start;
+     * {@code recordedLatencies} are the ones seen during capture.
+     *
+     * @param recordedSpan   time from the earliest to the latest captured request start
+     * @param dispatchSpan   time from the first to the last replayed request
+     */
+    public record Result(double speed, long replayed, long succeeded, long failed, long statusMismatches,
+                         Duration recordedSpan, Duration dispatchSpan, Duration elapsed,
+                         LatencyHistogram latencies, LatencyHistogram recordedLatencies,
+                         LatencyHistogram dispatchLag) {
+
+        /**
+         * Speed-up actually achieved; below the requested speed when dispatch fell behind.
+         */
+        public double effectiveSpeed() {
+            return dispatchSpan.isZero() ? speed : (double) recordedSpan.toNanos() / dispatchSpan.toNanos();
+        }
+
+        public double successRate() {
+            return replayed == 0 ? 0 : (double) succeeded / replayed * 100;
+        }
+
+        public String summary() {
+            return String.format("%d exchanges at %.1fx (effective %.2fx) | recorded span %dms, replayed in %dms "
+                            + "| ok=%d failed=%d status mismatches=%d | elapsed=%dms",
+                    replayed, speed, effectiveSpeed(), recordedSpan.toMillis(), dispatchSpan.toMillis(),
+                    succeeded, failed, statusMismatches, elapsed.toMillis());
+        }
+    }
+}
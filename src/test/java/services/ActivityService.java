@@ -1,11 +1,34 @@
 package services;
 
 import data.RequestDataFactory;
+import io.restassured.RestAssured;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Supplier;
+import perf.ConnectionPhases;
+import perf.LatencyHistogram;
+import utils.ActivityStreamScanner;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static io.restassured.RestAssured.given;
 
@@ -13,46 +36,67 @@ public class ActivityService {
 
     private final RequestDataFactory dataFactory = new RequestDataFactory();
     private static final Logger log = LogManager.getLogger(ActivityService.class);
+    private static final RequestLogSampler sampler = RequestLogSampler.shared();
+    private static final ResponseCache responseCache = ResponseCache.shared();
+    private static final ClientMetrics metrics = ClientMetrics.shared();
+    private static final Resilience resilience = Resilience.shared();
 
     private static final String ACTIVITIES_ENDPOINT = "/api/v1/Activities";
 
+    private final boolean cached;
+
+    public ActivityService() {
+        this(true);
+    }
+
+    /**
+     * @param cached whether GETs may be served from the shared {@link ResponseCache} when it
+     *               is enabled; performance tests pass false so every call reaches the server.
+     *               Writes invalidate the cache either way.
+     */
+    public ActivityService(boolean cached) {
+        this.cached = cached;
+    }
+
     /**
      * POST - Create a new activity with default data
      */
     public Response createActivity() {
+        if (RequestDataFactory.useTemplates()) {
+            return createActivity(dataFactory.buildNewActivityPayloadBytes());
+        }
         Map<String, Object> payload = dataFactory.buildNewActivityPayload();
-        log.info("POST {} - Creating activity with payload: {}", ACTIVITIES_ENDPOINT, payload);
-
-        Response response = given()
-                .header("Content-Type", "application/json")
-                .body(payload)
-                .when()
-                .post(ACTIVITIES_ENDPOINT)
-                .then()
-                .extract()
-                .response();
-
-        log.info("POST {} - Status: {}", ACTIVITIES_ENDPOINT, response.getStatusCode());
-        return response;
+        return send("POST", ACTIVITIES_ENDPOINT, "Creating activity with payload", () -> payload, null,
+                () -> given()
+                        .header("Content-Type", "application/json")
+                        .body(payload)
+                        .when()
+                        .post(ACTIVITIES_ENDPOINT));
     }
 
     /**
      * POST - Create a new activity with custom data
      */
     public Response createActivity(Map<String, Object> customPayload) {
-        log.info("POST {} - Creating activity with custom payload: {}", ACTIVITIES_ENDPOINT, customPayload);
-
-        Response response = given()
-                .header("Content-Type", "application/json")
-                .body(customPayload)
-                .when()
-                .post(ACTIVITIES_ENDPOINT)
-                .then()
-                .extract()
-                .response();
-
-        log.info("POST {} - Status: {}", ACTIVITIES_ENDPOINT, response.getStatusCode());
-        return response;
+        return send("POST", ACTIVITIES_ENDPOINT, "Creating activity with custom payload", () -> customPayload, null,
+                () -> given()
+                        .header("Content-Type", "application/json")
+                        .body(customPayload)
+                        .when()
+                        .post(ACTIVITIES_ENDPOINT));
+    }
+
+    /**
+     * POST - Create a new activity from pre-encoded JSON bytes (see RequestDataFactory templates)
+     */
+    public Response createActivity(byte[] jsonPayload) {
+        return send("POST", ACTIVITIES_ENDPOINT, "Creating activity with templated payload",
+                () -> jsonPayload.length + " bytes", null,
+                () -> given()
+                        .header("Content-Type", "application/json")
+                        .body(jsonPayload)
+                        .when()
+                        .post(ACTIVITIES_ENDPOINT));
     }
 
     /**
@@ -60,36 +104,57 @@ public class ActivityService {
      */
     public Response fetchActivityById(int activityId) {
         String endpoint = ACTIVITIES_ENDPOINT + "/" + activityId;
-        log.info("GET {} - Fetching activity", endpoint);
-
-        Response response = given()
-                .when()
-                .get(endpoint)
-                .then()
-                .extract()
-                .response();
-
-        log.info("GET {} - Status: {}", endpoint, response.getStatusCode());
-        log.debug("GET {} - Body: {}", endpoint, response.asString());
-        return response;
+        return get(endpoint, "Fetching activity", null);
     }
 
     /**
      * GET - Fetch all activities
      */
     public Response fetchAllActivities() {
-        log.info("GET {} - Fetching all activities", ACTIVITIES_ENDPOINT);
+        // Only evaluated when the outcome line is written; a token scan, not a materialized array
+        return get(ACTIVITIES_ENDPOINT, "Fetching all activities",
+                response -> "Count: " + new ActivityStreamScanner(0).scan(response.asByteArray()).count());
+    }
 
-        Response response = given()
-                .when()
-                .get(ACTIVITIES_ENDPOINT)
-                .then()
-                .extract()
-                .response();
+    /**
+     * GET - Stream all activities, counting, validating and sampling them as the body
+     * arrives. REST Assured always buffers whole bodies, so this reads the response
+     * through the shared java.net.http client instead; memory stays constant however
+     * large the collection is.
+     *
+     * Because it bypasses REST Assured, this call skips the global filters (traffic
+     * capture), the {@link ResponseCache}, connection phase timings and {@link Resilience}
+     * policies. It is logged and recorded in {@link ClientMetrics} only.
+     */
+    public ActivityStreamScanner.Summary streamAllActivities(int sampleSize) {
+        return streamAllActivities(RestAssured.baseURI, sampleSize);
+    }
 
-        log.info("GET {} - Status: {} | Count: {}", ACTIVITIES_ENDPOINT,
-                response.getStatusCode(), response.jsonPath().getList("$").size());
-        return response;
+    public ActivityStreamScanner.Summary streamAllActivities(String baseUrl, int sampleSize) {
+        log.info("GET {} - Streaming all activities", ACTIVITIES_ENDPOINT);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + ACTIVITIES_ENDPOINT))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = AsyncActivityService.sharedClient()
+                    .send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                ActivityStreamScanner.Summary summary = new ActivityStreamScanner(sampleSize).scan(body);
+                metrics.record("GET", ACTIVITIES_ENDPOINT, response.statusCode(), System.nanoTime() - start);
+                log.info("GET {} - Status: {} | Streamed count: {} | Invalid: {}", ACTIVITIES_ENDPOINT,
+                        response.statusCode(), summary.count(), summary.invalid());
+                return summary;
+            }
+        } catch (IOException e) {
+            metrics.record("GET", ACTIVITIES_ENDPOINT, -1, System.nanoTime() - start);
+            throw new UncheckedIOException("Streaming GET " + ACTIVITIES_ENDPOINT + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming " + ACTIVITIES_ENDPOINT, e);
+        }
     }
 
     /**
@@ -97,19 +162,26 @@ public class ActivityService {
      */
     public Response updateActivity(int activityId, Map<String, Object> updatedPayload) {
         String endpoint = ACTIVITIES_ENDPOINT + "/" + activityId;
-        log.info("PUT {} - Updating activity with: {}", endpoint, updatedPayload);
-
-        Response response = given()
-                .header("Content-Type", "application/json")
-                .body(updatedPayload)
-                .when()
-                .put(endpoint)
-                .then()
-                .extract()
-                .response();
-
-        log.info("PUT {} - Status: {}", endpoint, response.getStatusCode());
-        return response;
+        return send("PUT", endpoint, "Updating activity with", () -> updatedPayload, null,
+                () -> given()
+                        .header("Content-Type", "application/json")
+                        .body(updatedPayload)
+                        .when()
+                        .put(endpoint));
+    }
+
+    /**
+     * PUT - Update an existing activity from pre-encoded JSON bytes
+     */
+    public Response updateActivity(int activityId, byte[] jsonPayload) {
+        String endpoint = ACTIVITIES_ENDPOINT + "/" + activityId;
+        return send("PUT", endpoint, "Updating activity with templated payload",
+                () -> jsonPayload.length + " bytes", null,
+                () -> given()
+                        .header("Content-Type", "application/json")
+                        .body(jsonPayload)
+                        .when()
+                        .put(endpoint));
     }
 
     /**
@@ -117,16 +189,206 @@ public class ActivityService {
      */
     public Response deleteActivity(int activityId) {
         String endpoint = ACTIVITIES_ENDPOINT + "/" + activityId;
-        log.info("DELETE {} - Removing activity", endpoint);
+        return send("DELETE", endpoint, "Removing activity", null, null,
+                () -> given()
+                        .when()
+                        .delete(endpoint));
+    }
+
+    /**
+     * Sends a captured request as recorded, e.g. when replaying a {@link TrafficCapture} log
+     */
+    public Response sendCaptured(String method, String path, byte[] body) {
+        return send(method, path, "Replaying captured request", () -> body.length + " bytes", null,
+                () -> {
+                    RequestSpecification request = given();
+                    if (body.length > 0) {
+                        request.header("Content-Type", "application/json").body(body);
+                    }
+                    return request.when().request(method, path);
+                });
+    }
+
+    // --- Bulk operations ---
 
-        Response response = given()
-                .when()
-                .delete(endpoint)
-                .then()
-                .extract()
-                .response();
+    /**
+     * POST - Create one activity per payload, keeping at most {@code maxInFlight} requests open
+     */
+    public BulkResult<Map<String, Object>> createActivities(Stream<Map<String, Object>> payloads, int maxInFlight) {
+        return bulk("POST " + ACTIVITIES_ENDPOINT, payloads, maxInFlight, this::createActivity);
+    }
+
+    /**
+     * GET - Fetch each activity ID, keeping at most {@code maxInFlight} requests open
+     */
+    public BulkResult<Integer> fetchActivitiesById(Stream<Integer> activityIds, int maxInFlight) {
+        return bulk("GET " + ACTIVITIES_ENDPOINT + "/{id}", activityIds, maxInFlight, this::fetchActivityById);
+    }
+
+    /**
+     * DELETE - Remove each activity ID, keeping at most {@code maxInFlight} requests open
+     */
+    public BulkResult<Integer> deleteActivities(Stream<Integer> activityIds, int maxInFlight) {
+        return bulk("DELETE " + ACTIVITIES_ENDPOINT + "/{id}", activityIds, maxInFlight, this::deleteActivity);
+    }
+
+    /**
+     * Runs {@code call} for every input on a pool of {@code maxInFlight} platform threads,
+     * the same kind of thread the rest of the service is called from. Inputs are pulled from
+     * the stream only when an in-flight slot is free, so a lazily generated stream is never
+     * materialized and a slow server slows the producer down instead of queueing work.
+     * Failures are recorded per item rather than thrown.
+     */
+    private <T> BulkResult<T> bulk(String operation, Stream<T> inputs, int maxInFlight, Function<T, Response> call) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1, was " + maxInFlight);
+        }
+        Semaphore slots = new Semaphore(maxInFlight);
+        ConcurrentLinkedQueue<BulkResult.Item<T>> items = new ConcurrentLinkedQueue<>();
+        LatencyHistogram latencies = new LatencyHistogram();
+        long stalledNanos = 0;
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(maxInFlight); inputs) {
+            Iterator<T> iterator = inputs.iterator();
+            for (int index = 0; iterator.hasNext(); index++) {
+                T input = iterator.next();
+                long waitStart = System.nanoTime();
+                slots.acquire();
+                stalledNanos += System.nanoTime() - waitStart;
+
+                int itemIndex = index;
+                executor.execute(() -> {
+                    long requestStart = System.nanoTime();
+                    try {
+                        int status = call.apply(input).getStatusCode();
+                        long latency = System.nanoTime() - requestStart;
+                        latencies.recordNanos(latency);
+                        items.add(new BulkResult.Item<>(itemIndex, input, status, latency, null));
+                    } catch (RuntimeException e) {
+                        long latency = System.nanoTime() - requestStart;
+                        latencies.recordNanos(latency);
+                        items.add(new BulkResult.Item<>(itemIndex, input, -1, latency, e));
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching " + operation, e);
+        }
+
+        List<BulkResult.Item<T>> ordered = new ArrayList<>(items);
+        ordered.sort(Comparator.comparingInt(BulkResult.Item::index));
+        BulkResult<T> result = new BulkResult<>(operation, ordered, System.nanoTime() - start, stalledNanos,
+                maxInFlight, latencies);
+        log.info("Bulk {}", result.summary());
+        return result;
+    }
+
+    /**
+     * Sends a GET, or answers it from the shared {@link ResponseCache} when this service is
+     * cached and the cache is enabled. Cache hits are neither sent nor logged.
+     */
+    private Response get(String endpoint, String action, Function<Response, ?> outcome) {
+        if (!cached || !responseCache.isEnabled()) {
+            return send("GET", endpoint, action, null, outcome,
+                    () -> given()
+                            .when()
+                            .get(endpoint));
+        }
+        return responseCache.get(endpoint, validators -> send("GET", endpoint, action, null, outcome,
+                () -> given()
+                        .headers(validators)
+                        .when()
+                        .get(endpoint)));
+    }
+
+    /**
+     * Runs one request with its logging. Payloads, bodies and outcome details are only
+     * rendered when a line is actually written, and the time spent logging is added to
+     * the shared {@link RequestLogSampler}.
+     *
+     * By default this writes a line before and after every request. With
+     * -Dlog.sampleEvery=N it writes a single line after 1 in N requests and after every
+     * error instead.
+     */
+    private static Response send(String method, String endpoint, String action, Supplier<?> detail,
+                                 Function<Response, ?> outcome, Supplier<Response> request) {
+        long logNanos = 0;
+        long start;
+        if (!sampler.isSampling()) {
+            start = System.nanoTime();
+            if (detail == null) {
+                log.info("{} {} - {}", method, endpoint, action);
+            } else {
+                log.info("{} {} - {}: {}", () -> method, () -> endpoint, () -> action, detail);
+            }
+            logNanos += System.nanoTime() - start;
+        }
+
+        Response response;
+        try {
+            response = resilience.execute(method, () -> attempt(method, endpoint, request));
+        } catch (RuntimeException e) {
+            invalidateAfterWrite(method, endpoint);
+            start = System.nanoTime();
+            log.warn("{} {} - {} failed: {}", method, endpoint, action, e.toString());
+            sampler.recordOverhead(logNanos + System.nanoTime() - start, true);
+            throw e;
+        }
+        invalidateAfterWrite(method, endpoint);
 
-        log.info("DELETE {} - Status: {}", endpoint, response.getStatusCode());
+        start = System.nanoTime();
+        int status = response.getStatusCode();
+        boolean wroteLines = !sampler.isSampling();
+        if (wroteLines) {
+            if (outcome == null) {
+                log.info("{} {} - Status: {}", method, endpoint, status);
+            } else {
+                log.info("{} {} - Status: {} | {}", () -> method, () -> endpoint, () -> status,
+                        () -> outcome.apply(response));
+            }
+        } else if (sampler.shouldLog(status)) {
+            wroteLines = true;
+            log.log(status >= 400 ? Level.WARN : Level.INFO, "{} {} - {}{} | Status: {} | {}ms{}",
+                    () -> method, () -> endpoint, () -> action,
+                    () -> detail == null ? "" : ": " + detail.get(), () -> status, response::getTime,
+                    () -> outcome == null ? "" : " | " + outcome.apply(response));
+        }
+        log.debug("{} {} - Body: {}", () -> method, () -> endpoint, response::asString);
+        sampler.recordOverhead(logNanos + System.nanoTime() - start, wroteLines);
         return response;
     }
+
+    /**
+     * One attempt at a request, timed into {@link ConnectionPhases} and {@link ClientMetrics};
+     * with retries enabled in {@link Resilience}, a request may take several.
+     */
+    private static Response attempt(String method, String endpoint, Supplier<Response> request) {
+        long start = System.nanoTime();
+        ConnectionPhases.begin();
+        try {
+            Response response = request.get().then().extract().response();
+            ConnectionPhases.end(true);
+            ConnectionPhases.attach(response);
+            metrics.record(method, endpoint, response.getStatusCode(), System.nanoTime() - start);
+            return response;
+        } catch (RuntimeException e) {
+            ConnectionPhases.end(false);
+            metrics.record(method, endpoint, -1, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops cached copies of what a write may have changed: the item and the collection.
+     * Done after the response, so a GET racing the write cannot re-cache the old state.
+     */
+    private static void invalidateAfterWrite(String method, String endpoint) {
+        if (responseCache.isEnabled() && !"GET".equals(method)) {
+            responseCache.invalidate(endpoint, ACTIVITIES_ENDPOINT);
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import data.RequestDataFactory;
+import io.restassured.RestAssured;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link ActivityService}.
+ *
+ * Every call returns immediately with a CompletableFuture. All instances share one
+ * java.net.http client that negotiates HTTP/2 (multiplexing many requests over one
+ * connection) and pools HTTP/1.1 connections otherwise, so a handful of threads can
+ * keep thousands of requests in flight.
+ */
+public class AsyncActivityService {
+
+    private static final Logger log = LogManager.getLogger(AsyncActivityService.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String ACTIVITIES_ENDPOINT = "/api/v1/Activities";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final HttpClient SHARED_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private final RequestDataFactory dataFactory = new RequestDataFactory();
+    private final String baseUrl;
+
+    /**
+     * Targets the base URI REST Assured was configured with in BaseSetup.
+     */
+    public AsyncActivityService() {
+        this(RestAssured.baseURI);
+    }
+
+    public AsyncActivityService(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * The shared client, for callers that need to issue custom requests on the same connections.
+     */
+    public static HttpClient sharedClient() {
+        return SHARED_CLIENT;
+    }
+
+    /**
+     * POST - Create a new activity with default data
+     */
+    public CompletableFuture<HttpResponse<String>> createActivity() {
+        return createActivity(dataFactory.buildNewActivityPayload());
+    }
+
+    /**
+     * POST - Create a new activity with custom data
+     */
+    public CompletableFuture<HttpResponse<String>> createActivity(Map<String, Object> payload) {
+        return send(jsonRequest(ACTIVITIES_ENDPOINT).POST(HttpRequest.BodyPublishers.ofString(toJson(payload))));
+    }
+
+    /**
+     * GET - Fetch a single activity by its ID
+     */
+    public CompletableFuture<HttpResponse<String>> fetchActivityById(int activityId) {
+        return send(jsonRequest(ACTIVITIES_ENDPOINT + "/" + activityId).GET());
+    }
+
+    /**
+     * GET - Fetch all activities
+     */
+    public CompletableFuture<HttpResponse<String>> fetchAllActivities() {
+        return send(jsonRequest(ACTIVITIES_ENDPOINT).GET());
+    }
+
+    /**
+     * PUT - Update an existing activity
+     */
+    public CompletableFuture<HttpResponse<String>> updateActivity(int activityId, Map<String, Object> payload) {
+        return send(jsonRequest(ACTIVITIES_ENDPOINT + "/" + activityId)
+                .PUT(HttpRequest.BodyPublishers.ofString(toJson(payload))));
+    }
+
+    /**
+     * DELETE - Remove an activity by ID
+     */
+    public CompletableFuture<HttpResponse<String>> deleteActivity(int activityId) {
+        return send(jsonRequest(ACTIVITIES_ENDPOINT + "/" + activityId).DELETE());
+    }
+
+    private HttpRequest.Builder jsonRequest(String endpoint) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest.Builder builder) {
+        HttpRequest request = builder.build();
+        // Per-request lines stay at DEBUG: this client is meant for high fan-out
+        log.debug("{} {} - Sending async request", request.method(), request.uri().getPath());
+        return SHARED_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("{} {} - Failed: {}", request.method(), request.uri().getPath(), error.toString());
+                    } else {
+                        log.debug("{} {} - Status: {} ({})", request.method(), request.uri().getPath(),
+                                response.statusCode(), response.version());
+                    }
+                });
+    }
+
+    private static String toJson(Map<String, Object> payload) {
+        try {
+            return mapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not serialize payload " + payload, e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package services;
+
+import perf.LatencyHistogram;
+
+import java.util.List;
+
+/**
+ * Outcome of one bulk call on {@link ActivityService}: a result per input, in input
+ * order, plus timing for the whole batch.
+ *
+ * @param operation    e.g. "POST /api/v1/Activities"
+ * @param items        one entry per input, in the order the inputs were supplied
+ * @param elapsedNanos wall time from the first dispatch until the last response
+ * @param stalledNanos time the producer spent waiting for a free in-flight slot
+ * @param maxInFlight  the concurrency bound the batch ran with
+ * @param latencies    per-request latency of every item
+ */
+public record BulkResult<T>(String operation, List<Item<T>> items, long elapsedNanos, long stalledNanos,
+                            int maxInFlight, LatencyHistogram latencies) {
+
+    /**
+     * Result of one input; {@code statusCode} is -1 when the request threw.
+     */
+    public record Item<T>(int index, T input, int statusCode, long latencyNanos, RuntimeException error) {
+
+        public boolean isSuccess() {
+            return error == null && statusCode >= 200 && statusCode < 300;
+        }
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public long successCount() {
+        return items.stream().filter(Item::isSuccess).count();
+    }
+
+    public List<Item<T>> failures() {
+        return items.stream().filter(item -> !item.isSuccess()).toList();
+    }
+
+    public double throughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : items.size() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public String summary() {
+        return String.format("%s x%d | ok=%d failed=%d | %.0fms total, %.1f req/s at maxInFlight=%d "
+                        + "(producer stalled %.0fms) | %s", operation, items.size(), successCount(),
+                items.size() - successCount(), elapsedNanos / 1_000_000.0, throughputPerSecond(), maxInFlight,
+                stalledNanos / 1_000_000.0, latencies.summary());
+    }
+}
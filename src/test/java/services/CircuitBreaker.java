@@ -0,0 +1,143 @@
+package services;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stops sending requests to a target that is failing, and probes it before resuming.
+ *
+ * CLOSED: calls pass and their outcomes fill a window of the last {@code window} calls;
+ * once at least {@code minCalls} are recorded and the failure share reaches
+ * {@code failurePercent}, the breaker opens. OPEN: calls are rejected with
+ * {@link OpenException} without touching the network until {@code openDuration} has
+ * passed. HALF_OPEN: up to {@code probes} calls go through; if all succeed the breaker
+ * closes with an empty window, and any failure opens it again.
+ *
+ * Every state change starts a new generation, and each admitted call is tagged with the
+ * generation it was admitted in. An outcome from an earlier generation is ignored, so a
+ * slow call admitted while CLOSED that returns after the breaker went HALF_OPEN is not
+ * mistaken for a probe.
+ *
+ * State changes are rare and the critical sections only update counters, so a plain
+ * monitor is used; nothing blocks while holding it.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Thrown instead of sending a request while the breaker is open.
+     */
+    public static final class OpenException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public OpenException(String message) {
+            super(message);
+        }
+    }
+
+    private final int minCalls;
+    private final double failurePercent;
+    private final long openNanos;
+    private final int probes;
+
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+
+    public CircuitBreaker(int window, int minCalls, double failurePercent, Duration openDuration, int probes) {
+        this.outcomes = new boolean[Math.max(1, window)];
+        this.minCalls = Math.min(Math.max(1, minCalls), outcomes.length);
+        this.failurePercent = failurePercent;
+        this.openNanos = openDuration.toNanos();
+        this.probes = Math.max(1, probes);
+    }
+
+    /**
+     * Admits a call or throws {@link OpenException}; every admitted call must be followed
+     * by {@link #record(long, boolean)} with the returned permit.
+     *
+     * @return the generation the call was admitted in
+     */
+    public synchronized long acquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && probesStarted >= probes)) {
+            rejected.increment();
+            throw new OpenException("Circuit breaker is " + state + "; not sending request");
+        }
+        if (state == State.HALF_OPEN) {
+            probesStarted++;
+        }
+        return generation;
+    }
+
+    /**
+     * Records the outcome of a call admitted with {@code permit}; outcomes of calls admitted
+     * before the last state change are ignored.
+     */
+    public synchronized void record(long permit, boolean failed) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++probesSucceeded >= probes) {
+                transition(State.CLOSED);
+                recorded = 0;
+                next = 0;
+                failures = 0;
+                closed.increment();
+            }
+            return;
+        }
+        if (recorded == outcomes.length && outcomes[next]) {
+            failures--;
+        }
+        outcomes[next] = failed;
+        next = (next + 1) % outcomes.length;
+        recorded = Math.min(recorded + 1, outcomes.length);
+        if (failed) {
+            failures++;
+        }
+        if (recorded >= minCalls && failures * 100.0 / recorded >= failurePercent) {
+            open();
+        }
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+        opened.increment();
+    }
+
+    private void transition(State to) {
+        state = to;
+        generation++;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String summary() {
+        return String.format("state=%s | opened=%d closed=%d rejected=%d | window=%d minCalls=%d "
+                        + "failureThreshold=%.0f%% open=%dms probes=%d", getState(), opened.sum(), closed.sum(),
+                rejected.sum(), outcomes.length, minCalls, failurePercent, openNanos / 1_000_000, probes);
+    }
+}
@@ -0,0 +1,274 @@
+package services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Client-side request metrics for {@link ActivityService}, exportable as OpenMetrics text.
+ *
+ * Every request adds to a counter and a latency histogram keyed by method, endpoint
+ * template (ids become {id}) and status code. Series are created once and then only
+ * touched through LongAdders, so concurrent recording does not contend on a lock.
+ *
+ * -Dmetrics.file=path rewrites the exposition to a file every -Dmetrics.fileIntervalMs
+ * (5000) and once more at the end of the run; -Dmetrics.port=N serves it on
+ * http://127.0.0.1:N/metrics for a scraper. -Dmetrics.enabled=false stops recording.
+ */
+public final class ClientMetrics {
+
+    private static final Logger log = LogManager.getLogger(ClientMetrics.class);
+    private static final ClientMetrics SHARED =
+            new ClientMetrics(Boolean.parseBoolean(System.getProperty("metrics.enabled", "true")));
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    private static final String PREFIX = "activity_client_";
+    // Upper bounds of the latency buckets, in seconds
+    private static final double[] BUCKET_BOUNDS = {
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final boolean enabled;
+    private final Map<Key, Series> series = new ConcurrentHashMap<>();
+    private HttpServer scrapeServer;
+    private ScheduledExecutorService fileWriter;
+    private Path file;
+
+    public ClientMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static ClientMetrics shared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records one request; {@code status} is -1 when it failed without a response.
+     */
+    public void record(String method, String path, int status, long latencyNanos) {
+        if (!enabled) {
+            return;
+        }
+        Key key = new Key(method, template(path), status < 0 ? "error" : Integer.toString(status));
+        series.computeIfAbsent(key, k -> new Series()).record(latencyNanos);
+    }
+
+    /**
+     * Endpoint label for a path: query dropped, numeric segments replaced with {id}.
+     */
+    static String template(String path) {
+        int query = path.indexOf('?');
+        return ID_SEGMENT.matcher(query < 0 ? path : path.substring(0, query)).replaceAll("/{id}");
+    }
+
+    /**
+     * The current values in OpenMetrics text exposition format, ending with # EOF.
+     */
+    public String toOpenMetrics() {
+        List<Map.Entry<Key, Series>> entries = new ArrayList<>(series.entrySet());
+        entries.sort(Map.Entry.comparingByKey(Comparator.comparing(Key::endpoint)
+                .thenComparing(Key::method).thenComparing(Key::status)));
+
+        StringBuilder out = new StringBuilder(256 + entries.size() * 1024);
+        out.append("# TYPE ").append(PREFIX).append("requests counter\n");
+        out.append("# HELP ").append(PREFIX).append("requests Requests sent by ActivityService.\n");
+        for (Map.Entry<Key, Series> entry : entries) {
+            out.append(PREFIX).append("requests_total").append(entry.getKey().labels(null)).append(' ')
+                    .append(entry.getValue().count.sum()).append('\n');
+        }
+
+        String duration = PREFIX + "request_duration_seconds";
+        out.append("# TYPE ").append(duration).append(" histogram\n");
+        out.append("# UNIT ").append(duration).append(" seconds\n");
+        out.append("# HELP ").append(duration).append(" Client-side latency of ActivityService requests.\n");
+        for (Map.Entry<Key, Series> entry : entries) {
+            Key key = entry.getKey();
+            Series values = entry.getValue();
+            // Read the count first so buckets never exceed it while requests are still landing
+            long count = values.count.sum();
+            long cumulative = 0;
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                cumulative = Math.min(count, cumulative + values.buckets[i].sum());
+                out.append(duration).append("_bucket").append(key.labels(Double.toString(BUCKET_BOUNDS[i])))
+                        .append(' ').append(cumulative).append('\n');
+            }
+            out.append(duration).append("_bucket").append(key.labels("+Inf")).append(' ').append(count).append('\n');
+            out.append(duration).append("_count").append(key.labels(null)).append(' ').append(count).append('\n');
+            out.append(duration).append("_sum").append(key.labels(null)).append(' ')
+                    .append(values.sumNanos.sum() / 1_000_000_000.0).append('\n');
+        }
+        out.append("# EOF\n");
+        return out.toString();
+    }
+
+    /**
+     * One line per series: request count, error share and mean latency.
+     */
+    public String summary() {
+        long requests = 0;
+        long errors = 0;
+        long nanos = 0;
+        for (Map.Entry<Key, Series> entry : series.entrySet()) {
+            long count = entry.getValue().count.sum();
+            requests += count;
+            nanos += entry.getValue().sumNanos.sum();
+            if (entry.getKey().isError()) {
+                errors += count;
+            }
+        }
+        return String.format("series=%d requests=%d errors=%d mean=%.2fms", series.size(), requests, errors,
+                requests == 0 ? 0 : nanos / 1_000_000.0 / requests);
+    }
+
+    // --- Export ---
+
+    /**
+     * Starts whichever exports the -Dmetrics.file and -Dmetrics.port properties ask for.
+     */
+    public synchronized void startExportFromSystemProperties() {
+        String path = System.getProperty("metrics.file");
+        if (path != null && fileWriter == null) {
+            file = Path.of(path);
+            long intervalMs = Long.getLong("metrics.fileIntervalMs", 5_000);
+            fileWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-file-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fileWriter.scheduleAtFixedRate(this::writeFileQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            log.info("Writing client metrics to {} every {}ms", file, intervalMs);
+        }
+        Integer port = Integer.getInteger("metrics.port");
+        if (port != null && scrapeServer == null) {
+            try {
+                scrapeServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not bind metrics endpoint on port " + port, e);
+            }
+            scrapeServer.createContext("/metrics", this::serve);
+            scrapeServer.start();
+            log.info("Client metrics served at http://127.0.0.1:{}/metrics",
+                    scrapeServer.getAddress().getPort());
+        }
+    }
+
+    /**
+     * Stops the exports, writing the file one final time.
+     */
+    public synchronized void stopExport() {
+        if (fileWriter != null) {
+            fileWriter.shutdownNow();
+            fileWriter = null;
+            writeFile(file);
+            log.info("Client metrics written to {} ({})", file, summary());
+        }
+        if (scrapeServer != null) {
+            scrapeServer.stop(0);
+            scrapeServer = null;
+        }
+    }
+
+    /**
+     * Writes the exposition through a temporary file, so a reader never sees half of it.
+     */
+    public void writeFile(Path target) {
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+            Files.writeString(temporary, toOpenMetrics());
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write metrics to " + target, e);
+        }
+    }
+
+    private void writeFileQuietly() {
+        try {
+            writeFile(file);
+        } catch (UncheckedIOException e) {
+            // A missed interval is harmless; the next one or the final write catches up
+            log.warn("Periodic metrics write failed: {}", e.getMessage());
+        }
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = toOpenMetrics().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    // --- Series ---
+
+    private record Key(String method, String endpoint, String status) {
+
+        boolean isError() {
+            return status.equals("error") || status.charAt(0) >= '4';
+        }
+
+        String labels(String le) {
+            String labels = "{method=\"" + method + "\",endpoint=\"" + escape(endpoint) + "\",status=\"" + status + "\"";
+            return le == null ? labels + "}" : labels + ",le=\"" + le + "\"}";
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+
+    private static final class Series {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+        // Non-cumulative: buckets[i] counts values in (bound[i-1], bound[i]]; the rest fall in +Inf
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length];
+
+        Series() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long latencyNanos) {
+            double seconds = latencyNanos / 1_000_000_000.0;
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                if (seconds <= BUCKET_BOUNDS[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            sumNanos.add(latencyNanos);
+            count.increment();
+        }
+    }
+}
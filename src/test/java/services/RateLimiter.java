@@ -0,0 +1,68 @@
+package services;
+
+import perf.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Client-side token bucket that caps the request rate sent to the target.
+ *
+ * Implemented as a generic cell rate algorithm: a single atomic "theoretical arrival
+ * time" advances by one interval per permit, so up to {@code burst} requests pass at
+ * once after an idle period and the long-run rate never exceeds {@code permitsPerSecond}.
+ * Taking a permit is one compare-and-set; callers that must wait park outside any lock,
+ * which keeps virtual threads unpinned.
+ */
+public final class RateLimiter {
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+    private final LongAdder permits = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LatencyHistogram waits = new LatencyHistogram();
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1, was "
+                    + permitsPerSecond + "/s burst " + burst);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+    }
+
+    /**
+     * Takes a permit, waiting until one is available.
+     */
+    public void acquire() {
+        long wait;
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long now = System.nanoTime();
+            long next = Math.max(arrival, now) + intervalNanos;
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                wait = next - now - burst * intervalNanos;
+                break;
+            }
+        }
+        permits.increment();
+        if (wait > 0) {
+            throttled.increment();
+            waits.recordNanos(wait);
+            long deadline = System.nanoTime() + wait;
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+    }
+
+    public String summary() {
+        return String.format("limit=%.1f/s burst=%d | permits=%d throttled=%d | wait %s", permitsPerSecond, burst,
+                permits.sum(), throttled.sum(), waits.summary());
+    }
+}
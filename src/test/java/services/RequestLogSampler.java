@@ -0,0 +1,62 @@
+package services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which requests get per-request log lines and accounts for what logging costs.
+ *
+ * With -Dlog.sampleEvery=N (N > 1) only every Nth request and every error response
+ * (status >= 400 or an exception) is logged, as one line written after the response.
+ * The default of 1 keeps the full before/after request logging.
+ */
+public final class RequestLogSampler {
+
+    private static final RequestLogSampler SHARED = new RequestLogSampler(Integer.getInteger("log.sampleEvery", 1));
+
+    private final int sampleEvery;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder overheadNanos = new LongAdder();
+
+    public RequestLogSampler(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    public static RequestLogSampler shared() {
+        return SHARED;
+    }
+
+    public boolean isSampling() {
+        return sampleEvery > 1;
+    }
+
+    /**
+     * Whether this request's outcome should be logged; errors are always logged.
+     */
+    public boolean shouldLog(int statusCode) {
+        return statusCode >= 400 || statusCode < 0 || sequence.incrementAndGet() % sampleEvery == 0;
+    }
+
+    /**
+     * Adds the time one request spent in logging calls.
+     */
+    public void recordOverhead(long nanos, boolean wroteLines) {
+        requests.increment();
+        overheadNanos.add(nanos);
+        if (wroteLines) {
+            logged.increment();
+        }
+    }
+
+    public double getAverageOverheadMicros() {
+        long count = requests.sum();
+        return count == 0 ? 0 : overheadNanos.sum() / 1_000.0 / count;
+    }
+
+    public String summary() {
+        return String.format("sampleEvery=%d | logged %d of %d requests | overhead avg=%.1fus/request total=%.1fms",
+                sampleEvery, logged.sum(), requests.sum(), getAverageOverheadMicros(), overheadNanos.sum() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,161 @@
+package services;
+
+import io.restassured.response.Response;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Optional rate limiter, retries and circuit breaker around every {@link ActivityService}
+ * request, all off by default.
+ *
+ * Each attempt, including every retry, takes a rate-limiter permit and passes the circuit
+ * breaker, so retries count against the same limits as first attempts and stop as soon as
+ * the breaker opens. Enabled and tuned with -Dresilience.* properties:
+ * <ul>
+ *     <li>rateLimit (req/s, 0 = off) and rateBurst (10)</li>
+ *     <li>maxAttempts (1 = no retries), retryBaseMs (50), retryMaxMs (2000) and retryBudgetPercent (10)</li>
+ *     <li>breaker (false), breakerWindow (20), breakerMinCalls (10), breakerFailurePercent (50),
+ *     breakerOpenMs (5000) and breakerProbes (3)</li>
+ * </ul>
+ */
+public final class Resilience {
+
+    private static final Resilience SHARED = fromSystemProperties();
+
+    private final RateLimiter rateLimiter;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * @param rateLimiter    null for no rate limit
+     * @param retryPolicy    null for no retries
+     * @param circuitBreaker null for no circuit breaker
+     */
+    public Resilience(RateLimiter rateLimiter, RetryPolicy retryPolicy, CircuitBreaker circuitBreaker) {
+        this.rateLimiter = rateLimiter;
+        this.retryPolicy = retryPolicy != null && retryPolicy.isEnabled() ? retryPolicy : null;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public static Resilience shared() {
+        return SHARED;
+    }
+
+    private static Resilience fromSystemProperties() {
+        double rate = Double.parseDouble(System.getProperty("resilience.rateLimit", "0"));
+        RateLimiter rateLimiter = rate > 0
+                ? new RateLimiter(rate, Integer.getInteger("resilience.rateBurst", 10))
+                : null;
+        RetryPolicy retryPolicy = new RetryPolicy(Integer.getInteger("resilience.maxAttempts", 1),
+                Duration.ofMillis(Long.getLong("resilience.retryBaseMs", 50)),
+                Duration.ofMillis(Long.getLong("resilience.retryMaxMs", 2_000)),
+                Double.parseDouble(System.getProperty("resilience.retryBudgetPercent", "10")));
+        CircuitBreaker circuitBreaker = Boolean.getBoolean("resilience.breaker")
+                ? new CircuitBreaker(Integer.getInteger("resilience.breakerWindow", 20),
+                Integer.getInteger("resilience.breakerMinCalls", 10),
+                Double.parseDouble(System.getProperty("resilience.breakerFailurePercent", "50")),
+                Duration.ofMillis(Long.getLong("resilience.breakerOpenMs", 5_000)),
+                Integer.getInteger("resilience.breakerProbes", 3))
+                : null;
+        return new Resilience(rateLimiter, retryPolicy, circuitBreaker);
+    }
+
+    public boolean isEnabled() {
+        return rateLimiter != null || retryPolicy != null || circuitBreaker != null;
+    }
+
+    /**
+     * Runs {@code attempt} under the configured policies and returns the last response.
+     * Throws what the last attempt threw, or {@link CircuitBreaker.OpenException} when the
+     * breaker refused the first attempt; a refused retry returns the previous outcome.
+     */
+    public Response execute(String method, Supplier<Response> attempt) {
+        if (!isEnabled()) {
+            return attempt.get();
+        }
+        if (retryPolicy != null) {
+            retryPolicy.onRequest();
+        }
+        Response response = null;
+        RuntimeException error = null;
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            long breakerPermit = 0;
+            if (circuitBreaker != null) {
+                try {
+                    breakerPermit = circuitBreaker.acquire();
+                } catch (CircuitBreaker.OpenException e) {
+                    if (attemptNumber == 1) {
+                        throw e;
+                    }
+                    break;
+                }
+            }
+            response = null;
+            error = null;
+            int status = -1;
+            try {
+                response = attempt.get();
+                status = response.getStatusCode();
+            } catch (RuntimeException e) {
+                error = e;
+            } finally {
+                // Also when an Error escapes, or a HALF_OPEN probe would never be counted
+                if (circuitBreaker != null) {
+                    circuitBreaker.record(breakerPermit, status < 0 || status == 429 || status >= 500);
+                }
+            }
+
+            boolean retry = retryPolicy != null && retryPolicy.isRetryable(method, status)
+                    && retryPolicy.shouldRetry(attemptNumber);
+            if (!retry) {
+                break;
+            }
+            try {
+                Thread.sleep(retryPolicy.backoff(attemptNumber, retryAfterSeconds(response)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return response;
+    }
+
+    private static long retryAfterSeconds(Response response) {
+        String retryAfter = response == null ? null : response.getHeader("Retry-After");
+        if (retryAfter == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(retryAfter.trim());
+        } catch (NumberFormatException e) {
+            // An HTTP-date; the jittered backoff is used instead
+            return -1;
+        }
+    }
+
+    /**
+     * One line per enabled component.
+     */
+    public List<String> summaries() {
+        List<String> lines = new ArrayList<>();
+        if (rateLimiter != null) {
+            lines.add("Rate limiter: " + rateLimiter.summary());
+        }
+        if (retryPolicy != null) {
+            lines.add("Retries: " + retryPolicy.summary());
+        }
+        if (circuitBreaker != null) {
+            lines.add("Circuit breaker: " + circuitBreaker.summary());
+        }
+        return lines;
+    }
+}
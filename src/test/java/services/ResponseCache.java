@@ -0,0 +1,157 @@
+package services;
+
+import io.restassured.response.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Client-side read-through cache for the GET responses of {@link ActivityService}.
+ *
+ * Off by default; -Dhttp.cache.enabled=true turns it on for the whole run. Fresh entries
+ * (younger than -Dhttp.cache.ttlMs) are returned without a request. Once an entry expires
+ * it is revalidated with If-None-Match / If-Modified-Since when the server sent an ETag or
+ * Last-Modified, and a 304 keeps the cached body for another TTL. The least recently used
+ * entry is dropped beyond -Dhttp.cache.maxEntries.
+ *
+ * Writes invalidate the item they touched and the collection. An invalidation also
+ * discards any fetch that was in flight when it happened, so a response read before a
+ * write is never stored after it.
+ */
+public final class ResponseCache {
+
+    private static final ResponseCache SHARED = new ResponseCache(Boolean.getBoolean("http.cache.enabled"),
+            Long.getLong("http.cache.ttlMs", 30_000), Integer.getInteger("http.cache.maxEntries", 256));
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(boolean enabled, long ttlMillis, int maxEntries) {
+        this.enabled = enabled;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static ResponseCache shared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached response for a key while it is fresh, and otherwise runs the
+     * request with the conditional headers for the stale entry, if any.
+     *
+     * @param request sends the GET with the given extra headers
+     */
+    public Response get(String key, Function<Map<String, String>, Response> request) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && System.nanoTime() < entry.expiresAt) {
+            hits.increment();
+            return entry.response;
+        }
+
+        long fetchGeneration = generation.get();
+        Response response = request.apply(entry == null ? Map.of() : entry.validators());
+        if (entry != null && response.getStatusCode() == 304) {
+            revalidated.increment();
+            store(key, fetchGeneration, entry.response,
+                    firstNonNull(response.getHeader("ETag"), entry.etag),
+                    firstNonNull(response.getHeader("Last-Modified"), entry.lastModified));
+            return entry.response;
+        }
+        misses.increment();
+        String cacheControl = response.getHeader("Cache-Control");
+        if (response.getStatusCode() == 200 && (cacheControl == null || !cacheControl.contains("no-store"))) {
+            store(key, fetchGeneration, response, response.getHeader("ETag"), response.getHeader("Last-Modified"));
+        }
+        return response;
+    }
+
+    /**
+     * Drops the given keys and any response fetched before this call.
+     */
+    public void invalidate(String... keys) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            for (String key : keys) {
+                entries.remove(key);
+            }
+        }
+        invalidations.increment();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private void store(String key, long fetchGeneration, Response response, String etag, String lastModified) {
+        synchronized (entries) {
+            if (generation.get() == fetchGeneration) {
+                entries.put(key, new Entry(response, System.nanoTime() + ttlNanos, etag, lastModified));
+            }
+        }
+    }
+
+    private static String firstNonNull(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    public double getHitRate() {
+        long served = hits.sum() + revalidated.sum() + misses.sum();
+        return served == 0 ? 0 : (double) (hits.sum() + revalidated.sum()) / served;
+    }
+
+    public String summary() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return String.format("hits=%d revalidated=%d misses=%d hitRate=%.1f%% | entries=%d/%d evictions=%d "
+                        + "invalidations=%d | ttl=%dms", hits.sum(), revalidated.sum(), misses.sum(),
+                getHitRate() * 100, size, maxEntries, evictions.sum(), invalidations.sum(), ttlNanos / 1_000_000);
+    }
+
+    private record Entry(Response response, long expiresAt, String etag, String lastModified) {
+
+        Map<String, String> validators() {
+            Map<String, String> headers = new LinkedHashMap<>();
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+            return headers;
+        }
+    }
+}
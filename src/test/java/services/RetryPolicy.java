@@ -0,0 +1,112 @@
+package services;
+
+import perf.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * When and how long to wait before repeating a failed request.
+ *
+ * Only idempotent methods (GET, PUT, DELETE) are retried, after an exception or a
+ * 429/502/503/504. The delay is "full jitter" exponential backoff, a uniform draw from
+ * zero to {@code baseDelay * 2^retry} capped at {@code maxDelay}, so clients that failed
+ * together do not retry together. A Retry-After from the server sets a lower bound.
+ *
+ * A retry budget keeps retries from multiplying load on a struggling target: every
+ * request earns {@code budgetPercent}/100 of a retry token, up to a small reserve, and
+ * each retry spends a whole token. Once it runs dry, failures are returned as they are.
+ */
+public final class RetryPolicy {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "PUT", "DELETE", "HEAD", "OPTIONS");
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+    // Budget is kept in thousandths of a token
+    private static final long TOKEN = 1_000;
+    private static final long RESERVE = 10 * TOKEN;
+
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final long earnedPerRequest;
+    private final AtomicLong budget = new AtomicLong(RESERVE);
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder budgetDenied = new LongAdder();
+    private final LatencyHistogram backoffs = new LatencyHistogram();
+
+    /**
+     * @param maxAttempts   attempts per request including the first; 1 disables retries
+     * @param budgetPercent retries allowed per 100 requests, on top of a reserve of 10
+     */
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, double budgetPercent) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.earnedPerRequest = (long) (budgetPercent / 100 * TOKEN);
+    }
+
+    public boolean isEnabled() {
+        return maxAttempts > 1;
+    }
+
+    /**
+     * Counts a new request and adds its share to the retry budget.
+     */
+    public void onRequest() {
+        requests.increment();
+        budget.accumulateAndGet(earnedPerRequest, (current, earned) -> Math.min(RESERVE, current + earned));
+    }
+
+    public boolean isRetryable(String method, int status) {
+        return IDEMPOTENT_METHODS.contains(method) && (status < 0 || RETRYABLE_STATUSES.contains(status));
+    }
+
+    /**
+     * Decides whether attempt {@code attempt} (1-based) may be followed by another.
+     */
+    public boolean shouldRetry(int attempt) {
+        if (attempt >= maxAttempts) {
+            exhausted.increment();
+            return false;
+        }
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN) {
+                budgetDenied.increment();
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN));
+        retries.increment();
+        return true;
+    }
+
+    /**
+     * Backoff before retry number {@code retry} (1-based).
+     *
+     * @param retryAfterSeconds the server's Retry-After, or -1 if it sent none
+     */
+    public Duration backoff(int retry, long retryAfterSeconds) {
+        long ceiling = Math.min(maxDelayNanos, baseDelayNanos << Math.min(retry - 1, 30));
+        long delay = ThreadLocalRandom.current().nextLong(Math.max(1, ceiling) + 1);
+        if (retryAfterSeconds > 0) {
+            delay = Math.max(delay, Math.min(maxDelayNanos, retryAfterSeconds * 1_000_000_000L));
+        }
+        backoffs.recordNanos(delay);
+        return Duration.ofNanos(delay);
+    }
+
+    public String summary() {
+        long sent = requests.sum();
+        return String.format("maxAttempts=%d | requests=%d retries=%d (amplification %.3fx) exhausted=%d "
+                        + "budgetDenied=%d | backoff %s", maxAttempts, sent, retries.sum(),
+                sent == 0 ? 1.0 : (double) (sent + retries.sum()) / sent, exhausted.sum(), budgetDenied.sum(),
+                backoffs.summary());
+    }
+}
@@ -0,0 +1,95 @@
+package services;
+
+import io.restassured.RestAssured;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import perf.TrafficLog;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Records the REST Assured traffic sent by {@link ActivityService} into a
+ * {@link TrafficLog} for later replay.
+ *
+ * A global filter, installed on the first {@link #start(Path)}, appends the method,
+ * path and query, request body, status and latency of every exchange while a capture is
+ * running, and passes requests straight through otherwise. Enabled for a whole run with
+ * -Dtraffic.capture=path.
+ */
+public final class TrafficCapture {
+
+    private static final Logger log = LogManager.getLogger(TrafficCapture.class);
+
+    private static volatile TrafficLog.Writer writer;
+    private static boolean filterInstalled;
+
+    private TrafficCapture() {
+    }
+
+    public static synchronized void start(Path path) {
+        if (writer != null) {
+            throw new IllegalStateException("Traffic capture is already running");
+        }
+        if (!filterInstalled) {
+            RestAssured.filters(TrafficCapture::capture);
+            filterInstalled = true;
+        }
+        writer = new TrafficLog.Writer(path);
+        log.info("Capturing traffic to {}", path);
+    }
+
+    /**
+     * Stops the running capture and closes its log.
+     *
+     * @return a summary of what was captured, or null if no capture was running
+     */
+    public static synchronized String stop() {
+        if (writer == null) {
+            return null;
+        }
+        TrafficLog.Writer stopped = writer;
+        writer = null;
+        stopped.close();
+        String summary = stopped.summary();
+        log.info("Traffic capture stopped: {}", summary);
+        return summary;
+    }
+
+    public static boolean isCapturing() {
+        return writer != null;
+    }
+
+    private static Response capture(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                                    FilterContext context) {
+        TrafficLog.Writer target = writer;
+        if (target == null) {
+            return context.next(request, response);
+        }
+        long start = System.nanoTime();
+        Response result = context.next(request, response);
+        target.append(start, request.getMethod(), pathOf(request.getURI()), bodyOf(request.getBody()),
+                result.getStatusCode(), System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Path and query relative to the base URI, so a log can be replayed against another host.
+     */
+    private static String pathOf(String uri) {
+        URI parsed = URI.create(uri);
+        return parsed.getRawQuery() == null ? parsed.getRawPath() : parsed.getRawPath() + "?" + parsed.getRawQuery();
+    }
+
+    private static byte[] bodyOf(Object body) {
+        if (body == null) {
+            return null;
+        }
+        return body instanceof byte[] bytes ? bytes : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
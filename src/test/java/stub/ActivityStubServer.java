@@ -0,0 +1,403 @@
+package stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the FakeRestAPI Activities endpoints.
+ *
+ * Serves GET/POST/PUT/DELETE on /api/v1/Activities with the same JSON shape and
+ * status codes as the live API, on virtual threads, so suites can run offline and
+ * performance tests can measure the client harness rather than the internet.
+ * Like the live API, writes are echoed back but never persisted.
+ */
+public class ActivityStubServer {
+
+    public static final String ACTIVITIES_PATH = "/api/v1/Activities";
+
+    private static final Logger log = LogManager.getLogger(ActivityStubServer.class);
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8; v=1.0";
+    private static final OffsetDateTime DUE_DATE_ORIGIN = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final DateTimeFormatter ISO_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    static {
+        // Without TCP_NODELAY, kept-alive connections stall ~40ms per response on delayed ACKs
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Profile profile;
+    private final AtomicLong requestSequence = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ActivityStubServer(Profile profile) {
+        this.profile = profile;
+    }
+
+    public synchronized ActivityStubServer start() {
+        if (server != null) {
+            return this;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", profile.port), profile.backlog);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind stub server on port " + profile.port, e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(ACTIVITIES_PATH, this::handle);
+        server.start();
+        log.info("Activity stub server listening on {} ({})", getBaseUrl(), profile);
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.close();
+        server = null;
+        log.info("Activity stub server stopped after {} requests", requestSequence.get());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    public long getRequestCount() {
+        return requestSequence.get();
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    // --- Request handling ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long sequence = requestSequence.incrementAndGet();
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            simulateLatency(sequence);
+
+            if (profile.errorRate > 0 && unitRandom(sequence, 0x5eed) < profile.errorRate) {
+                if (profile.errorStatus == 429 || profile.errorStatus == 503) {
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                }
+                sendProblem(exchange, sequence, profile.errorStatus, "Injected failure");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals(ACTIVITIES_PATH) || path.equals(ACTIVITIES_PATH + "/")) {
+                handleCollection(exchange, sequence, body);
+            } else {
+                handleItem(exchange, sequence, body, path.substring(ACTIVITIES_PATH.length() + 1));
+            }
+        } catch (IOException e) {
+            // Client went away mid-response; nothing useful left to send
+            log.debug("Stub request {} aborted: {}", sequence, e.getMessage());
+        }
+    }
+
+    private void handleCollection(HttpExchange exchange, long sequence, byte[] body) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> sendActivityList(exchange);
+            case "POST" -> echoActivity(exchange, sequence, body);
+            default -> sendProblem(exchange, sequence, 405, "Method Not Allowed");
+        }
+    }
+
+    private void handleItem(HttpExchange exchange, long sequence, byte[] body, String rawId) throws IOException {
+        long id;
+        try {
+            id = Long.parseLong(rawId);
+        } catch (NumberFormatException e) {
+            sendProblem(exchange, sequence, 400, "One or more validation errors occurred.");
+            return;
+        }
+
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                if (id < 1 || id > profile.datasetSize) {
+                    sendProblem(exchange, sequence, 404, "Not Found");
+                } else {
+                    sendJson(exchange, 200, activityJson(id).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            case "PUT" -> echoActivity(exchange, sequence, body);
+            case "DELETE" -> exchange.sendResponseHeaders(200, -1);
+            default -> sendProblem(exchange, sequence, 405, "Method Not Allowed");
+        }
+    }
+
+    private void echoActivity(HttpExchange exchange, long sequence, byte[] body) throws IOException {
+        String json = new String(body, StandardCharsets.UTF_8).trim();
+        if (!json.startsWith("{") || !json.endsWith("}")) {
+            sendProblem(exchange, sequence, 400, "One or more validation errors occurred.");
+            return;
+        }
+        sendJson(exchange, 200, body);
+    }
+
+    private void sendActivityList(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = new BufferedOutputStream(throttle(exchange.getResponseBody()), 16 * 1024)) {
+            out.write('[');
+            for (long id = 1; id <= profile.datasetSize; id++) {
+                if (id > 1) {
+                    out.write(',');
+                }
+                out.write(activityJson(id).getBytes(StandardCharsets.UTF_8));
+            }
+            out.write(']');
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        if (profile.slowBodyChunkBytes > 0) {
+            exchange.sendResponseHeaders(status, 0);
+            try (OutputStream out = throttle(exchange.getResponseBody())) {
+                out.write(body);
+            }
+        } else {
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private void sendProblem(HttpExchange exchange, long sequence, int status, String title) throws IOException {
+        String problem = "{\"type\":\"https://tools.ietf.org/html/rfc7231\",\"title\":\"" + title
+                + "\",\"status\":" + status + ",\"traceId\":\"00-stub-" + sequence + "-00\"}";
+        exchange.getResponseHeaders().set("Content-Type", "application/problem+json; charset=utf-8");
+        byte[] body = problem.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    static String activityJson(long id) {
+        return "{\"id\":" + id
+                + ",\"title\":\"Activity " + id
+                + "\",\"dueDate\":\"" + DUE_DATE_ORIGIN.plusHours(id).format(ISO_FORMAT)
+                + "\",\"completed\":" + (id % 2 == 0) + "}";
+    }
+
+    // --- Latency and body pacing ---
+
+    private void simulateLatency(long sequence) {
+        long delayNanos = profile.latency.sampleNanos(unitRandom(sequence, 0x1a7e), unitRandom(sequence, 0x2b8f));
+        if (delayNanos > 0) {
+            sleep(Duration.ofNanos(delayNanos));
+        }
+    }
+
+    private OutputStream throttle(OutputStream out) {
+        if (profile.slowBodyChunkBytes <= 0) {
+            return out;
+        }
+        return new FilterOutputStream(out) {
+            private int writtenInChunk;
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                if (++writtenInChunk >= profile.slowBodyChunkBytes) {
+                    out.flush();
+                    writtenInChunk = 0;
+                    sleep(Duration.ofMillis(profile.slowBodyChunkDelayMs));
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                for (int i = off; i < off + len; i++) {
+                    write(b[i]);
+                }
+            }
+        };
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deterministic uniform value in [0, 1) for a request, so a given seed and request
+     * order always reproduce the same latencies and injected errors.
+     */
+    private double unitRandom(long sequence, long salt) {
+        long z = profile.seed + sequence * 0x9E3779B97F4A7C15L + salt;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    // --- Configuration ---
+
+    /**
+     * Shape of a simulated latency distribution, in milliseconds.
+     * Parsed from specs like "none", "fixed:20", "uniform:5:50", "exponential:10" or "lognormal:10:0.5".
+     */
+    public record LatencyModel(String distribution, double first, double second) {
+
+        public static final LatencyModel NONE = new LatencyModel("none", 0, 0);
+
+        public static LatencyModel parse(String spec) {
+            String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+            double first = parts.length > 1 ? Double.parseDouble(parts[1]) : 0;
+            double second = parts.length > 2 ? Double.parseDouble(parts[2]) : 0;
+            return switch (parts[0]) {
+                case "none" -> NONE;
+                case "fixed", "exponential" -> new LatencyModel(parts[0], first, 0);
+                case "uniform", "lognormal" -> new LatencyModel(parts[0], first, second);
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        }
+
+        long sampleNanos(double u1, double u2) {
+            double millis = switch (distribution) {
+                case "fixed" -> first;
+                case "uniform" -> first + (second - first) * u1;
+                case "exponential" -> -first * Math.log(1 - u1);
+                case "lognormal" -> {
+                    // Box-Muller; first is the median in ms, second the sigma of the underlying normal
+                    double gaussian = Math.sqrt(-2 * Math.log(1 - u1)) * Math.cos(2 * Math.PI * u2);
+                    yield first * Math.exp(second * gaussian);
+                }
+                default -> 0;
+            };
+            return (long) (millis * 1_000_000);
+        }
+
+        @Override
+        public String toString() {
+            return switch (distribution) {
+                case "none" -> "none";
+                case "fixed", "exponential" -> distribution + ":" + first;
+                default -> distribution + ":" + first + ":" + second;
+            };
+        }
+    }
+
+    /**
+     * Tunable behaviour of the stub. Defaults mirror the live API with no added latency or errors.
+     */
+    public static class Profile {
+
+        private int port = 0;
+        private int backlog = 4096;
+        private long datasetSize = 30;
+        private LatencyModel latency = LatencyModel.NONE;
+        private double errorRate = 0.0;
+        private int errorStatus = 500;
+        private int slowBodyChunkBytes = 0;
+        private long slowBodyChunkDelayMs = 0;
+        private long seed = 42L;
+
+        /**
+         * Reads overrides from -Dstub.* system properties, e.g.
+         * -Dstub.latency=lognormal:15:0.4 -Dstub.errorRate=0.01 -Dstub.datasetSize=1000
+         */
+        public static Profile fromSystemProperties() {
+            Profile profile = new Profile();
+            profile.port = Integer.getInteger("stub.port", profile.port);
+            profile.backlog = Integer.getInteger("stub.backlog", profile.backlog);
+            profile.datasetSize = Long.getLong("stub.datasetSize", profile.datasetSize);
+            profile.latency = LatencyModel.parse(System.getProperty("stub.latency", "none"));
+            profile.errorRate = Double.parseDouble(System.getProperty("stub.errorRate", "0"));
+            profile.errorStatus = Integer.getInteger("stub.errorStatus", profile.errorStatus);
+            profile.slowBodyChunkBytes = Integer.getInteger("stub.slowBodyChunkBytes", profile.slowBodyChunkBytes);
+            profile.slowBodyChunkDelayMs = Long.getLong("stub.slowBodyChunkDelayMs", profile.slowBodyChunkDelayMs);
+            profile.seed = Long.getLong("stub.seed", profile.seed);
+            return profile;
+        }
+
+        public Profile port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Profile datasetSize(long datasetSize) {
+            this.datasetSize = datasetSize;
+            return this;
+        }
+
+        public Profile latency(LatencyModel latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public Profile errors(double errorRate, int errorStatus) {
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public Profile slowBody(int chunkBytes, long chunkDelayMs) {
+            this.slowBodyChunkBytes = chunkBytes;
+            this.slowBodyChunkDelayMs = chunkDelayMs;
+            return this;
+        }
+
+        public Profile seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public long getDatasetSize() {
+            return datasetSize;
+        }
+
+        @Override
+        public String toString() {
+            return "datasetSize=" + datasetSize + ", latency=" + latency + ", errorRate=" + errorRate
+                    + ", errorStatus=" + errorStatus + ", slowBody=" + slowBodyChunkBytes + "B/"
+                    + slowBodyChunkDelayMs + "ms, seed=" + seed;
+        }
+    }
+
+    /**
+     * Runs the stub standalone, e.g. to serve a load generator in another JVM.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ActivityStubServer stub = new ActivityStubServer(Profile.fromSystemProperties()).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::stop));
+        Thread.currentThread().join();
+    }
+}
@@ -1,17 +1,54 @@
 package tests.performance;
 
 import base.BaseSetup;
+import base.HttpConnectionPool;
+import base.TestReport;
+import data.RequestDataFactory;
+import io.restassured.RestAssured;
 import io.restassured.response.Response;
+import perf.CapacitySearch;
+import perf.CarrierMonitor;
+import perf.ClientResources;
+import perf.ConnectionPhases;
+import perf.ConstantRateLoadGenerator;
+import perf.LatencyHistogram;
+import perf.LoadCoordinator;
+import perf.LoadExecutors;
+import perf.LoadWorker;
+import perf.PerformanceBaseline;
+import perf.RegressionGate;
+import perf.SoakRunner;
+import perf.ThroughputEngine;
+import perf.TrafficReplayer;
 import services.ActivityService;
+import services.AsyncActivityService;
+import services.BulkResult;
+import services.ClientMetrics;
+import services.RequestLogSampler;
+import services.Resilience;
+import services.TrafficCapture;
+import stub.ActivityStubServer;
+import utils.ActivityStreamScanner;
 import utils.ResponseValidator;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Performance Test Suite
@@ -23,212 +60,677 @@ public class PerformanceTestSuite extends BaseSetup {
     private ActivityService activityService;
 
     private static final long RESPONSE_TIME_THRESHOLD_MS = 3000;
-    private static final int LOAD_TEST_CONCURRENT_USERS = 10;
+    private static final int LOAD_TEST_CONCURRENT_USERS = Integer.getInteger("perf.loadUsers", 10);
     private static final int LOAD_TEST_REQUESTS_PER_USER = 5;
-    private static final int STRESS_TEST_MAX_THREADS = 50;
+    // SLO is set with -Dstress.sloP99Ms and -Dstress.sloErrorPercent
+    private static final Duration STRESS_STEP_DURATION = Duration.ofSeconds(Long.getLong("stress.stepSeconds", 5));
+    private static final Duration STRESS_STEP_WARMUP = Duration.ofSeconds(Long.getLong("stress.stepWarmupSeconds", 1));
+    private static final int STRESS_START_USERS = Integer.getInteger("stress.startUsers", 5);
+    private static final double STRESS_RESOLUTION = 0.1;
+    private static final int STRESS_CONFIRM_RUNS = Integer.getInteger("stress.confirmRuns", 1);
+    private static final int THROUGHPUT_WORKERS = Integer.getInteger("perf.throughputWorkers", 4);
+    private static final Duration THROUGHPUT_MAX_WARMUP = Duration.ofSeconds(5);
+    private static final Duration THROUGHPUT_MEASUREMENT =
+            Duration.ofSeconds(Long.getLong("perf.throughputSeconds", 3));
+    private static final int THROUGHPUT_BATCHES = 10;
+    private static final double ARRIVAL_RATE_RPS = 20.0;
+    private static final Duration ARRIVAL_RATE_DURATION = Duration.ofSeconds(5);
+    private static final int ASYNC_IN_FLIGHT_REQUESTS = Integer.getInteger("perf.asyncRequests", 200);
+    private static final int STREAMING_DATASET_SIZE = 1_000_000;
+    private static final long STREAMING_MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+    private static final int STREAMING_GC_EVERY_SAMPLES = 10;
+    // Short by default so the suite stays quick; e.g. -Dsoak.durationSeconds=14400 -Dsoak.windowSeconds=10
+    private static final Duration SOAK_DURATION = Duration.ofSeconds(Long.getLong("soak.durationSeconds", 6));
+    private static final Duration SOAK_WINDOW = Duration.ofSeconds(Long.getLong("soak.windowSeconds", 2));
+    private static final double SOAK_RPS = Double.parseDouble(System.getProperty("soak.rps", "20"));
+    // -Dtraffic.replay=path replays an earlier -Dtraffic.capture log instead of a fresh capture
+    private static final String TRAFFIC_REPLAY = System.getProperty("traffic.replay");
+    private static final String TRAFFIC_REPLAY_SPEEDS = System.getProperty("traffic.replaySpeeds", "1,10");
+    private static final int TRAFFIC_CAPTURE_EXCHANGES = 40;
+    // Gate thresholds are set with -Dperf.baselineAlpha, -Dperf.baselineMinShiftPercent and -Dperf.baselineMinShiftMs
+    private static final Path BASELINE_FILE =
+            Path.of(System.getProperty("perf.baselineFile", "baselines/performance-baseline.json"));
+    private static final boolean BASELINE_FORCE_UPDATE = Boolean.getBoolean("perf.baselineUpdate");
+    // Opt-in against the live API: a shared server's noise makes its baseline unreliable
+    private static final boolean BASELINE_LIVE = Boolean.getBoolean("perf.baselineLive");
+    private static final int BASELINE_SAMPLES = Integer.getInteger("perf.baselineSamples", 200);
+    private static final int BASELINE_WARMUP = 20;
+    private static final int BULK_ITEMS = Integer.getInteger("perf.bulkItems", 200);
+    private static final int BULK_MAX_IN_FLIGHT = Integer.getInteger("perf.bulkMaxInFlight", 16);
+    private static final int BULK_SEQUENTIAL_ITEMS = 20;
+    // Opt-in: spawns (or waits for) worker JVMs, see LoadCoordinator for -Dperf.distributed.* settings
+    private static final boolean DISTRIBUTED_ENABLED = System.getProperty("perf.distributed.workers") != null;
+    private static final double DISTRIBUTED_RPS = Double.parseDouble(System.getProperty("perf.distributed.rps", "100"));
+    private static final Duration DISTRIBUTED_DURATION =
+            Duration.ofSeconds(Long.getLong("perf.distributed.durationSeconds", 10));
 
     @BeforeClass
     public void setupService() {
         super.configureRestAssured();
-        activityService = new ActivityService();
+        // Every measured call must reach the server, whatever -Dhttp.cache.enabled says
+        activityService = new ActivityService(false);
     }
 
     // --- Response Time Benchmarks ---
 
     @Test(groups = "performance", priority = 1)
     public void testGetAllActivitiesResponseTime() {
-        report = reportManager.createTest("Performance: GET All Activities - Response Time");
-        report.info("Measuring response time for fetching all activities");
+        startTest("Performance: GET All Activities - Response Time");
+        report().info("Measuring response time for fetching all activities");
 
+        LatencyHistogram latencies = new LatencyHistogram();
+        long start = System.nanoTime();
         Response response = activityService.fetchAllActivities();
+        latencies.recordNanos(System.nanoTime() - start);
         long responseTime = response.getTime();
 
         ResponseValidator.assertStatusCode(response, 200);
         ResponseValidator.assertResponseTimeBelow(response, RESPONSE_TIME_THRESHOLD_MS);
 
-        report.pass("Response time: " + responseTime + "ms (threshold: " + RESPONSE_TIME_THRESHOLD_MS + "ms)");
+        report().info("Client-side latency: " + latencies.summary());
+        reportLastRequestPhases();
+        report().pass("Response time: " + responseTime + "ms (threshold: " + RESPONSE_TIME_THRESHOLD_MS + "ms)");
     }
 
     @Test(groups = "performance", priority = 2)
     public void testGetSingleActivityResponseTime() {
-        report = reportManager.createTest("Performance: GET Single Activity - Response Time");
-        report.info("Measuring response time for fetching a single activity");
+        startTest("Performance: GET Single Activity - Response Time");
+        report().info("Measuring response time for fetching a single activity");
 
+        LatencyHistogram latencies = new LatencyHistogram();
+        long start = System.nanoTime();
         Response response = activityService.fetchActivityById(1);
+        latencies.recordNanos(System.nanoTime() - start);
         long responseTime = response.getTime();
 
         ResponseValidator.assertStatusCode(response, 200);
         ResponseValidator.assertResponseTimeBelow(response, RESPONSE_TIME_THRESHOLD_MS);
 
-        report.pass("Response time: " + responseTime + "ms (threshold: " + RESPONSE_TIME_THRESHOLD_MS + "ms)");
+        report().info("Client-side latency: " + latencies.summary());
+        reportLastRequestPhases();
+        report().pass("Response time: " + responseTime + "ms (threshold: " + RESPONSE_TIME_THRESHOLD_MS + "ms)");
     }
 
     @Test(groups = "performance", priority = 3)
     public void testCreateActivityResponseTime() {
-        report = reportManager.createTest("Performance: POST Create Activity - Response Time");
-        report.info("Measuring response time for creating an activity");
+        startTest("Performance: POST Create Activity - Response Time");
+        report().info("Measuring response time for creating an activity");
 
+        LatencyHistogram latencies = new LatencyHistogram();
+        long start = System.nanoTime();
         Response response = activityService.createActivity();
+        latencies.recordNanos(System.nanoTime() - start);
         long responseTime = response.getTime();
 
         ResponseValidator.assertStatusCode(response, 200);
         ResponseValidator.assertResponseTimeBelow(response, RESPONSE_TIME_THRESHOLD_MS);
 
-        report.pass("Response time: " + responseTime + "ms (threshold: " + RESPONSE_TIME_THRESHOLD_MS + "ms)");
+        report().info("Client-side latency: " + latencies.summary());
+        reportLastRequestPhases();
+        report().pass("Response time: " + responseTime + "ms (threshold: " + RESPONSE_TIME_THRESHOLD_MS + "ms)");
     }
 
     // --- Load Testing ---
 
     @Test(groups = "performance", priority = 4)
-    public void testConcurrentLoadOnGetEndpoint() throws InterruptedException, ExecutionException {
-        report = reportManager.createTest("Performance: Load Test - Concurrent GET Requests");
-        report.info("Sending " + (LOAD_TEST_CONCURRENT_USERS * LOAD_TEST_REQUESTS_PER_USER)
+    public void testConcurrentLoadOnGetEndpoint() throws InterruptedException {
+        startTest("Performance: Load Test - Concurrent GET Requests");
+        report().info("Sending " + (LOAD_TEST_CONCURRENT_USERS * LOAD_TEST_REQUESTS_PER_USER)
                 + " concurrent requests (" + LOAD_TEST_CONCURRENT_USERS + " users x "
-                + LOAD_TEST_REQUESTS_PER_USER + " requests each)");
+                + LOAD_TEST_REQUESTS_PER_USER + " requests each) on " + LoadExecutors.mode() + " threads");
 
-        ExecutorService executor = Executors.newFixedThreadPool(LOAD_TEST_CONCURRENT_USERS);
-        List<Future<Long>> futures = new ArrayList<>();
+        ExecutorService executor = LoadExecutors.forUsers(LOAD_TEST_CONCURRENT_USERS);
+        LatencyHistogram latencies = new LatencyHistogram();
 
         AtomicInteger successCount = new AtomicInteger(0);
         AtomicInteger failureCount = new AtomicInteger(0);
 
         int totalRequests = LOAD_TEST_CONCURRENT_USERS * LOAD_TEST_REQUESTS_PER_USER;
 
-        for (int i = 0; i < totalRequests; i++) {
-            futures.add(executor.submit(() -> {
-                try {
-                    Response response = activityService.fetchAllActivities();
-                    if (response.getStatusCode() == 200) {
-                        successCount.incrementAndGet();
-                    } else {
-                        failureCount.incrementAndGet();
+        try (CarrierMonitor carriers = CarrierMonitor.start()) {
+            // Each task is one simulated user issuing its requests back to back
+            for (int user = 0; user < LOAD_TEST_CONCURRENT_USERS; user++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < LOAD_TEST_REQUESTS_PER_USER; i++) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = activityService.fetchAllActivities().getStatusCode();
+                            latencies.recordNanos(System.nanoTime() - start);
+                            if (status == 200) {
+                                successCount.incrementAndGet();
+                            } else {
+                                failureCount.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failureCount.incrementAndGet();
+                        }
                     }
-                    return response.getTime();
-                } catch (Exception e) {
-                    failureCount.incrementAndGet();
-                    return -1L;
-                }
-            }));
-        }
-
-        executor.shutdown();
-        executor.awaitTermination(60, TimeUnit.SECONDS);
-
-        // Calculate statistics
-        long totalTime = 0;
-        long maxTime = 0;
-        long minTime = Long.MAX_VALUE;
-        int validResponses = 0;
-
-        for (Future<Long> future : futures) {
-            long time = future.get();
-            if (time > 0) {
-                totalTime += time;
-                maxTime = Math.max(maxTime, time);
-                minTime = Math.min(minTime, time);
-                validResponses++;
+                });
             }
+
+            executor.shutdown();
+            executor.awaitTermination(60, TimeUnit.SECONDS);
+            reportCarrierUsage(carriers.stop());
         }
 
-        long avgTime = validResponses > 0 ? totalTime / validResponses : 0;
         double successRate = (double) successCount.get() / totalRequests * 100;
 
-        report.info("Results: Total=" + totalRequests + ", Success=" + successCount.get()
+        report().info("Results: Total=" + totalRequests + ", Success=" + successCount.get()
                 + ", Failed=" + failureCount.get());
-        report.info("Response Times: Avg=" + avgTime + "ms, Min=" + minTime + "ms, Max=" + maxTime + "ms");
-        report.info("Success Rate: " + String.format("%.1f", successRate) + "%");
+        report().info("Response Times: " + latencies.summary());
+        report().info("Success Rate: " + String.format("%.1f", successRate) + "%");
+        reportConnectionPool();
+        reportConnectionPhases();
+        reportLoggingOverhead();
+        reportClientMetrics();
+        reportResilience();
 
         Assert.assertTrue(successRate >= 80.0,
                 "Success rate " + successRate + "% is below acceptable threshold of 80%");
 
-        report.pass("Load test completed with " + String.format("%.1f", successRate)
-                + "% success rate | Avg response: " + avgTime + "ms");
+        report().pass("Load test completed with " + String.format("%.1f", successRate)
+                + "% success rate | p99 response: " + String.format("%.2f", latencies.percentileMillis(99)) + "ms");
     }
 
-    // --- Stress Testing ---
-
     @Test(groups = "performance", priority = 5)
-    public void testStressTestToFindBreakingPoint() throws InterruptedException {
-        report = reportManager.createTest("Performance: Stress Test - Finding Breaking Point");
-        report.info("Gradually increasing concurrent load to find the API breaking point");
-
-        int[] threadCounts = {5, 10, 20, 30, 50};
-        int breakingPoint = -1;
-
-        for (int threadCount : threadCounts) {
-            if (threadCount > STRESS_TEST_MAX_THREADS) break;
-
-            ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-            AtomicInteger successes = new AtomicInteger(0);
-            AtomicInteger failures = new AtomicInteger(0);
-            List<Future<Long>> futures = new ArrayList<>();
-
-            for (int i = 0; i < threadCount; i++) {
-                futures.add(executor.submit(() -> {
-                    try {
-                        Response response = activityService.fetchActivityById(1);
-                        if (response.getStatusCode() == 200) {
-                            successes.incrementAndGet();
-                        } else {
-                            failures.incrementAndGet();
-                        }
-                        return response.getTime();
-                    } catch (Exception e) {
-                        failures.incrementAndGet();
-                        return -1L;
+    public void testConstantArrivalRateLoad() throws InterruptedException {
+        startTest("Performance: Load Test - Constant Arrival Rate");
+        report().info("Offering " + ARRIVAL_RATE_RPS + " req/s for " + ARRIVAL_RATE_DURATION.toSeconds()
+                + "s regardless of response times (open model, coordinated-omission corrected)");
+
+        ConstantRateLoadGenerator generator = new ConstantRateLoadGenerator(
+                ARRIVAL_RATE_RPS, ARRIVAL_RATE_DURATION, Executors.newCachedThreadPool());
+        ConstantRateLoadGenerator.Result result = generator.run(
+                () -> activityService.fetchActivityById(1).getStatusCode());
+
+        report().info("Rate: " + result.summary());
+        report().info("Latency (from intended start): " + result.latencies().summary());
+        report().info("Service time (uncorrected): " + result.serviceTimes().summary());
+        report().info("Dispatcher lag: " + result.dispatchLag().summary());
+
+        Assert.assertTrue(result.successRate() >= 80.0,
+                "Success rate " + result.successRate() + "% is below acceptable threshold of 80%");
+
+        report().pass("Constant-rate load sustained at " + String.format("%.1f", result.achievedRps())
+                + " req/s (shortfall " + String.format("%.1f", result.shortfallPercent()) + "%) | corrected p99: "
+                + String.format("%.2f", result.latencies().percentileMillis(99)) + "ms");
+    }
+
+    @Test(groups = "performance", priority = 6)
+    public void testAsyncConcurrentRequests() {
+        startTest("Performance: Load Test - Async Requests In Flight");
+        report().info("Issuing " + ASYNC_IN_FLIGHT_REQUESTS + " GET requests at once through the shared "
+                + "non-blocking HTTP/2 client");
+
+        AsyncActivityService asyncService = new AsyncActivityService();
+        LatencyHistogram latencies = new LatencyHistogram();
+        ConcurrentMap<HttpClient.Version, AtomicInteger> versions = new ConcurrentHashMap<>();
+        AtomicInteger successCount = new AtomicInteger(0);
+        int threadsBefore = Thread.activeCount();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> inFlight = new ArrayList<>(ASYNC_IN_FLIGHT_REQUESTS);
+        for (int i = 0; i < ASYNC_IN_FLIGHT_REQUESTS; i++) {
+            long sent = System.nanoTime();
+            inFlight.add(asyncService.fetchActivityById(i % 30 + 1).whenComplete((response, error) -> {
+                latencies.recordNanos(System.nanoTime() - sent);
+                if (error == null) {
+                    versions.computeIfAbsent(response.version(), v -> new AtomicInteger()).incrementAndGet();
+                    if (response.statusCode() == 200) {
+                        successCount.incrementAndGet();
                     }
-                }));
-            }
+                }
+            }));
+        }
+        int threadsDuring = Thread.activeCount();
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        double successRate = (double) successCount.get() / ASYNC_IN_FLIGHT_REQUESTS * 100;
+        report().info("Protocols negotiated: " + versions);
+        report().info("Threads: " + threadsBefore + " before, " + threadsDuring + " with all requests in flight");
+        report().info("Response Times: " + latencies.summary());
+        report().info("Throughput: " + String.format("%.2f", ASYNC_IN_FLIGHT_REQUESTS / elapsedSeconds) + " req/s");
 
-            executor.shutdown();
-            executor.awaitTermination(30, TimeUnit.SECONDS);
+        Assert.assertTrue(successRate >= 80.0,
+                "Success rate " + successRate + "% is below acceptable threshold of 80%");
 
-            double successRate = (double) successes.get() / threadCount * 100;
-            report.info("Threads: " + threadCount + " | Success Rate: "
-                    + String.format("%.1f", successRate) + "% | Failures: " + failures.get());
+        report().pass("Async fan-out completed with " + String.format("%.1f", successRate)
+                + "% success rate | p99 response: " + String.format("%.2f", latencies.percentileMillis(99)) + "ms");
+    }
 
-            if (successRate < 70.0) {
-                breakingPoint = threadCount;
-                report.info("Breaking point detected at " + threadCount + " concurrent threads");
-                break;
+    @Test(groups = "performance", priority = 7)
+    public void testStreamingFetchAllActivitiesAtScale() throws InterruptedException {
+        startTest("Performance: Streaming - One Million Activities");
+        report().info("Streaming GET all activities from a local stub serving " + STREAMING_DATASET_SIZE
+                + " activities; counting, validating and sampling without materializing the body");
+
+        ActivityStubServer largeStub = new ActivityStubServer(
+                new ActivityStubServer.Profile().datasetSize(STREAMING_DATASET_SIZE)).start();
+        AtomicLong peakRetainedBytes = new AtomicLong();
+        // Live heap is only known after a collection, and a lean scan may not trigger one on
+        // its own, so the sampler forces one every few samples
+        Thread heapSampler = Thread.ofPlatform().daemon().start(() -> {
+            for (int sample = 1; !Thread.currentThread().isInterrupted(); sample++) {
+                if (sample % STREAMING_GC_EVERY_SAMPLES == 0) {
+                    System.gc();
+                }
+                peakRetainedBytes.accumulateAndGet(ClientResources.heapUsedAfterLastGc(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
             }
+        });
+
+        ActivityStreamScanner.Summary summary;
+        long baselineRetained;
+        long collectionsBefore;
+        long collectionsDuring;
+        long start = System.nanoTime();
+        try {
+            System.gc();
+            baselineRetained = ClientResources.heapUsedAfterLastGc();
+            peakRetainedBytes.set(baselineRetained);
+            collectionsBefore = ClientResources.capture().gcCount();
+            summary = activityService.streamAllActivities(largeStub.getBaseUrl(), 5);
+            collectionsDuring = ClientResources.capture().gcCount() - collectionsBefore;
+        } finally {
+            heapSampler.interrupt();
+            heapSampler.join();
+            largeStub.stop();
         }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long retainedGrowth = peakRetainedBytes.get() - baselineRetained;
+
+        report().info("Scanned " + summary.count() + " activities in " + String.format("%.2f", elapsedSeconds)
+                + "s (" + String.format("%.0f", summary.count() / elapsedSeconds) + " elements/s), invalid="
+                + summary.invalid());
+        report().info("Live heap after GC: baseline=" + baselineRetained / (1024 * 1024) + "MB, peak growth during scan="
+                + retainedGrowth / (1024 * 1024) + "MB over " + collectionsDuring + " collections");
+        report().info("Sample: " + summary.samples());
+
+        Assert.assertTrue(summary.isValid(), "Streamed collection was not valid: " + summary.errors());
+        Assert.assertEquals(summary.count(), STREAMING_DATASET_SIZE, "Streamed element count");
+        Assert.assertTrue(collectionsDuring > 0,
+                "No garbage collection ran while streaming, so live-heap growth was not measured");
+        Assert.assertTrue(retainedGrowth < STREAMING_MAX_RETAINED_BYTES,
+                "Live heap grew by " + retainedGrowth + " bytes while streaming; expected constant memory");
+
+        report().pass("Streamed " + summary.count() + " activities with " + retainedGrowth / (1024 * 1024)
+                + "MB live-heap growth");
+    }
 
-        if (breakingPoint == -1) {
-            report.pass("API handled all load levels up to " + STRESS_TEST_MAX_THREADS
-                    + " concurrent threads without breaking");
+    // --- Stress Testing ---
+
+    @Test(groups = "performance", priority = 8)
+    public void testStressTestToFindBreakingPoint() throws InterruptedException {
+        startTest("Performance: Stress Test - Finding Breaking Point");
+        CapacitySearch.Slo slo = CapacitySearch.Slo.fromSystemProperties();
+        int maxUsers = LoadExecutors.maxUsers();
+        report().info("Searching for the highest sustainable concurrency within SLO " + slo + ": "
+                + STRESS_STEP_DURATION.toSeconds() + "s steps (after " + STRESS_STEP_WARMUP.toSeconds()
+                + "s warmup) from " + STRESS_START_USERS + " users, doubling, "
+                + "then binary search | executor mode: " + LoadExecutors.mode() + " | max users: " + maxUsers);
+
+        TestReport stressReport = report();
+        CapacitySearch search = new CapacitySearch(slo, STRESS_STEP_DURATION, STRESS_STEP_WARMUP,
+                Math.min(STRESS_START_USERS, maxUsers), maxUsers, STRESS_RESOLUTION, STRESS_CONFIRM_RUNS);
+        CapacitySearch.Result result;
+        try (CarrierMonitor carriers = CarrierMonitor.start()) {
+            result = search.run(() -> activityService.fetchActivityById(1).getStatusCode(),
+                    step -> stressReport.info("Step: " + step.summary()));
+            reportCarrierUsage(carriers.stop());
+        }
+
+        reportConnectionPool();
+        reportConnectionPhases();
+        reportLoggingOverhead();
+        reportClientMetrics();
+        reportResilience();
+        report().info("Capacity: " + result.summary());
+
+        if (result.capacity() == 0) {
+            report().warning("API broke the SLO even at " + STRESS_START_USERS + " concurrent users");
+        } else if (result.limitReached()) {
+            report().pass("API sustained the SLO at every level up to " + result.capacity()
+                    + " concurrent users (confidence " + String.format("%.0f", result.confidence() * 100) + "%)");
         } else {
-            report.warning("API breaking point observed at approximately " + breakingPoint + " concurrent threads");
+            report().warning("API breaking point between " + result.capacity() + " and " + result.firstFailing()
+                    + " concurrent users (confidence " + String.format("%.0f", result.confidence() * 100) + "%)");
+        }
+    }
+
+    private void reportCarrierUsage(CarrierMonitor.Report carrierReport) {
+        if (LoadExecutors.mode() != LoadExecutors.Mode.VIRTUAL) {
+            return;
+        }
+        report().info("Virtual threads: " + carrierReport.summary());
+        if (carrierReport.pinnedEvents() > 0) {
+            report().warning("Virtual threads were pinned to their carriers " + carrierReport.pinnedEvents()
+                    + " times; concurrency above the carrier count was partly serialized");
+        }
+    }
+
+    private void reportConnectionPool() {
+        HttpConnectionPool pool = HttpConnectionPool.current();
+        if (pool != null) {
+            report().info("Connection pool: " + pool.summary());
+        }
+    }
+
+    private void reportLastRequestPhases() {
+        String phases = ConnectionPhases.lastOnThisThread();
+        if (phases != null) {
+            report().info("Phases: " + phases);
+        }
+    }
+
+    /**
+     * Where request time went, per phase, for every request since the last call.
+     */
+    private void reportConnectionPhases() {
+        if (HttpConnectionPool.current() == null) {
+            return;
+        }
+        report().info("Connection phases:");
+        ConnectionPhases.summary().lines().forEach(line -> report().info(line));
+        ConnectionPhases.reset();
+    }
+
+    private void reportLoggingOverhead() {
+        report().info("Request logging: " + RequestLogSampler.shared().summary());
+    }
+
+    private void reportClientMetrics() {
+        if (ClientMetrics.shared().isEnabled()) {
+            report().info("Client metrics: " + ClientMetrics.shared().summary());
+        }
+    }
+
+    private void reportResilience() {
+        if (Resilience.shared().isEnabled()) {
+            Resilience.shared().summaries().forEach(line -> report().info("Resilience - " + line));
         }
     }
 
     // --- Throughput Measurement ---
 
-    @Test(groups = "performance", priority = 6)
-    public void testThroughputMeasurement() {
-        report = reportManager.createTest("Performance: Throughput - Requests Per Second");
-        report.info("Measuring how many sequential requests the API can handle per second");
-
-        int totalRequests = 20;
-        long startTime = System.currentTimeMillis();
-        int successCount = 0;
-
-        for (int i = 0; i < totalRequests; i++) {
-            Response response = activityService.fetchActivityById(1);
-            if (response.getStatusCode() == 200) {
-                successCount++;
+    @Test(groups = "performance", priority = 9)
+    public void testThroughputMeasurement() throws InterruptedException {
+        startTest("Performance: Throughput - Requests Per Second");
+        report().info("Measuring steady-state throughput with " + THROUGHPUT_WORKERS + " closed-loop workers: warmup "
+                + "until stable (max " + THROUGHPUT_MAX_WARMUP.toSeconds() + "s), then "
+                + THROUGHPUT_MEASUREMENT.toSeconds() + "s in " + THROUGHPUT_BATCHES + " batches");
+
+        ThroughputEngine engine = new ThroughputEngine(THROUGHPUT_WORKERS, THROUGHPUT_MAX_WARMUP,
+                Duration.ofMillis(250), THROUGHPUT_MEASUREMENT, THROUGHPUT_BATCHES);
+        ThroughputEngine.Result result = engine.run(() -> activityService.fetchActivityById(1).getStatusCode());
+
+        report().info("Throughput: " + result.summary());
+        report().info("Workers: " + result.perWorkerSummary());
+        report().info("Response Times: " + result.latencies().summary());
+        reportConnectionPool();
+        reportConnectionPhases();
+        reportLoggingOverhead();
+        reportClientMetrics();
+        reportResilience();
+
+        Assert.assertTrue(result.completed() > 0, "At least some requests should complete");
+        Assert.assertTrue(result.errorRatePercent() <= 20.0,
+                "Error rate " + result.errorRatePercent() + "% is above acceptable threshold of 20%");
+
+        report().pass("Throughput measured at " + String.format("%.2f", result.meanRps()) + " +/- "
+                + String.format("%.2f", result.confidenceHalfWidth()) + " req/s");
+    }
+
+    // --- Endurance (Soak) ---
+
+    @Test(groups = {"performance", "soak"}, priority = 10)
+    public void testSoakEndurance() throws InterruptedException {
+        startTest("Performance: Soak - Sustained Rate With Windowed Metrics");
+        report().info("Offering " + SOAK_RPS + " req/s for " + SOAK_DURATION.toSeconds() + "s, reported every "
+                + SOAK_WINDOW.toSeconds() + "s with client heap, GC, thread and socket usage");
+
+        TestReport soakReport = report();
+        SoakRunner runner = new SoakRunner(SOAK_RPS, SOAK_DURATION, SOAK_WINDOW, LoadExecutors.unbounded());
+        SoakRunner.Result result = runner.run(() -> activityService.fetchActivityById(1).getStatusCode(),
+                window -> soakReport.info("Window " + window.index() + ": " + window.summary()));
+
+        report().info("Overall: " + result.overall().summary());
+        report().info("Latency (from intended start): " + result.overall().latencies().summary());
+        report().info("Drift: " + result.summary());
+        reportConnectionPool();
+        reportConnectionPhases();
+
+        Assert.assertFalse(result.windows().isEmpty(), "Soak run produced no windows");
+        Assert.assertTrue(result.overall().successRate() >= 80.0,
+                "Success rate " + result.overall().successRate() + "% is below acceptable threshold of 80%");
+
+        if (result.isJudged() && !"stable".equals(result.verdict())) {
+            report().warning("Soak run not stable: " + result.verdict());
+        }
+        report().pass("Sustained " + String.format("%.1f", result.overall().achievedRps()) + " req/s over "
+                + result.windows().size() + " windows | verdict: " + result.verdict());
+    }
+
+    // --- Traffic Record and Replay ---
+
+    @Test(groups = "performance", priority = 11)
+    public void testTrafficRecordAndReplay() throws Exception {
+        startTest("Performance: Traffic Capture and Paced Replay");
+        Path trafficLog;
+        boolean ownCapture = TRAFFIC_REPLAY == null;
+        if (ownCapture) {
+            if (TrafficCapture.isCapturing()) {
+                throw new SkipException("A run-wide -Dtraffic.capture is active; replay its log with -Dtraffic.replay");
+            }
+            trafficLog = Files.createTempFile("traffic", ".atrf");
+            report().info("Capturing " + TRAFFIC_CAPTURE_EXCHANGES + " mixed exchanges with bursts and pauses");
+            TrafficCapture.start(trafficLog);
+            try {
+                captureMixedTraffic();
+            } finally {
+                report().info("Captured: " + TrafficCapture.stop());
+            }
+        } else {
+            trafficLog = Path.of(TRAFFIC_REPLAY);
+            report().info("Replaying " + trafficLog + " (" + Files.size(trafficLog) + " bytes)");
+        }
+
+        try {
+            for (String speedText : TRAFFIC_REPLAY_SPEEDS.split(",")) {
+                double speed = Double.parseDouble(speedText.trim());
+                TrafficReplayer.Result result = new TrafficReplayer(speed, LoadExecutors.unbounded())
+                        .replay(trafficLog, (method, path, body) ->
+                                activityService.sendCaptured(method, path, body).getStatusCode());
+                report().info("Replay: " + result.summary());
+                report().info("Latency at " + speed + "x (from intended start): " + result.latencies().summary());
+                report().info("Latency as captured: " + result.recordedLatencies().summary());
+
+                Assert.assertTrue(result.replayed() > 0, "Traffic log held no exchanges");
+                Assert.assertTrue(result.successRate() >= 80.0,
+                        "Replay success rate " + result.successRate() + "% is below acceptable threshold of 80%");
+                if (result.effectiveSpeed() < speed * 0.8) {
+                    report().warning(String.format("Replay fell behind: %.2fx achieved of %.1fx requested",
+                            result.effectiveSpeed(), speed));
+                }
+            }
+        } finally {
+            if (ownCapture) {
+                Files.deleteIfExists(trafficLog);
             }
         }
+        report().pass("Captured traffic replayed at " + TRAFFIC_REPLAY_SPEEDS + "x");
+    }
 
-        long elapsedMs = System.currentTimeMillis() - startTime;
-        double requestsPerSecond = (double) totalRequests / elapsedMs * 1000;
+    /**
+     * Reads, creates, updates and deletes with uneven gaps, so replays have a pacing to keep.
+     */
+    private void captureMixedTraffic() throws InterruptedException {
+        RequestDataFactory dataFactory = new RequestDataFactory();
+        for (int i = 0; i < TRAFFIC_CAPTURE_EXCHANGES; i++) {
+            switch (i % 5) {
+                case 0 -> activityService.createActivity();
+                case 1 -> activityService.updateActivity(1 + i % 20,
+                        dataFactory.buildUpdatePayload(1 + i % 20, "Replayed update " + i));
+                case 2 -> activityService.deleteActivity(1 + i % 20);
+                default -> activityService.fetchActivityById(1 + i % 20);
+            }
+            // Bursts of ten back to back, then a pause
+            TimeUnit.MILLISECONDS.sleep(i % 10 == 9 ? 150 : 5);
+        }
+    }
 
-        report.info("Completed " + totalRequests + " requests in " + elapsedMs + "ms");
-        report.info("Throughput: " + String.format("%.2f", requestsPerSecond) + " requests/second");
-        report.info("Success count: " + successCount + "/" + totalRequests);
+    // --- Baseline Regression Gate ---
 
-        Assert.assertTrue(successCount > 0, "At least some requests should succeed");
+    @Test(groups = "performance", priority = 12)
+    public void testPerformanceAgainstBaseline() {
+        if (!isStubTarget() && !BASELINE_LIVE) {
+            throw new SkipException("Baseline gate runs against the stub; set -Dperf.baselineLive=true to gate the live API");
+        }
+        startTest("Performance: Baseline - Statistical Regression Gate");
+        report().info("Sampling each endpoint " + BASELINE_SAMPLES + " times (after " + BASELINE_WARMUP
+                + " warmup calls) and comparing with " + BASELINE_FILE);
+
+        RequestDataFactory dataFactory = new RequestDataFactory();
+        Map<String, PerformanceBaseline.Endpoint> current = new LinkedHashMap<>();
+        current.put("GET /api/v1/Activities", sampleEndpoint(() -> activityService.fetchAllActivities()));
+        current.put("GET /api/v1/Activities/{id}", sampleEndpoint(() -> activityService.fetchActivityById(1)));
+        current.put("POST /api/v1/Activities", sampleEndpoint(() -> activityService.createActivity()));
+        current.put("PUT /api/v1/Activities/{id}", sampleEndpoint(() ->
+                activityService.updateActivity(1, dataFactory.buildUpdatePayload(1, "Baseline update"))));
+        current.put("DELETE /api/v1/Activities/{id}", sampleEndpoint(() -> activityService.deleteActivity(1)));
+
+        // Runs are only comparable against the same kind of server
+        String environment = isStubTarget()
+                ? "stub [" + ActivityStubServer.Profile.fromSystemProperties() + "]"
+                : RestAssured.baseURI;
+        PerformanceBaseline baseline = PerformanceBaseline.load(BASELINE_FILE);
+        PerformanceBaseline.Snapshot previous = baseline.get(environment);
+        report().info(previous == null
+                ? "No baseline yet for " + environment
+                : "Baseline for " + environment + " recorded " + previous.recordedAt()
+                + " on Java " + previous.javaVersion());
+
+        List<RegressionGate.Comparison> comparisons = RegressionGate.fromSystemProperties().compare(previous, current);
+        List<String> regressions = new ArrayList<>();
+        for (RegressionGate.Comparison comparison : comparisons) {
+            if (comparison.verdict() == RegressionGate.Verdict.REGRESSED) {
+                regressions.add(comparison.summary());
+                report().warning(comparison.summary());
+            } else {
+                report().info(comparison.summary());
+            }
+        }
+
+        // A regressed run must not become the new reference unless asked to
+        if (regressions.isEmpty() || BASELINE_FORCE_UPDATE) {
+            baseline.put(environment, PerformanceBaseline.Snapshot.of(current));
+            baseline.save();
+            report().info("Baseline updated at " + baseline.getPath());
+        } else {
+            report().info("Baseline kept; rerun with -Dperf.baselineUpdate=true to accept the new numbers");
+        }
+
+        Assert.assertTrue(regressions.isEmpty(),
+                "Significant regressions against baseline:\n" + String.join("\n", regressions));
+        report().pass("No significant regression across " + comparisons.size() + " endpoints");
+    }
 
-        report.pass("Throughput measured at " + String.format("%.2f", requestsPerSecond) + " req/s");
+    /**
+     * Sequential samples of one endpoint, in milliseconds, with its single-user throughput
+     * (reported only, see {@link RegressionGate}).
+     */
+    private PerformanceBaseline.Endpoint sampleEndpoint(Supplier<Response> call) {
+        for (int i = 0; i < BASELINE_WARMUP; i++) {
+            call.get();
+        }
+        double[] latenciesMs = new double[BASELINE_SAMPLES];
+        int errors = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < BASELINE_SAMPLES; i++) {
+            long requestStart = System.nanoTime();
+            int status = call.get().getStatusCode();
+            latenciesMs[i] = (System.nanoTime() - requestStart) / 1_000_000.0;
+            if (status < 200 || status >= 300) {
+                errors++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return new PerformanceBaseline.Endpoint(BASELINE_SAMPLES / seconds, (double) errors / BASELINE_SAMPLES * 100,
+                latenciesMs);
+    }
+
+    // --- Bulk Operations ---
+
+    @Test(groups = "performance", priority = 13)
+    public void testBulkSeedAndTeardownThroughput() {
+        startTest("Performance: Bulk - Seed and Teardown Throughput");
+        report().info("Creating and deleting " + BULK_ITEMS + " activities with at most " + BULK_MAX_IN_FLIGHT
+                + " requests in flight, against a sequential reference of " + BULK_SEQUENTIAL_ITEMS);
+
+        RequestDataFactory dataFactory = new RequestDataFactory();
+        BulkResult<Map<String, Object>> sequential = activityService.createActivities(
+                dataFactory.generateActivityPayloads(BULK_SEQUENTIAL_ITEMS), 1);
+        report().info("Sequential reference: " + sequential.summary());
+
+        // Payloads are generated lazily, only as fast as in-flight slots free up
+        BulkResult<Map<String, Object>> seeded = activityService.createActivities(
+                dataFactory.generateActivityPayloads(BULK_ITEMS), BULK_MAX_IN_FLIGHT);
+        report().info("Seed: " + seeded.summary());
+        BulkResult<Integer> removed = activityService.deleteActivities(
+                IntStream.rangeClosed(1, BULK_ITEMS).boxed(), BULK_MAX_IN_FLIGHT);
+        report().info("Teardown: " + removed.summary());
+
+        for (BulkResult<?> result : List.of(seeded, removed)) {
+            result.failures().stream().limit(5).forEach(item -> report().warning(result.operation() + " item "
+                    + item.index() + " failed: " + (item.error() != null ? item.error() : "HTTP " + item.statusCode())));
+        }
+        double speedup = sequential.throughputPerSecond() == 0 ? 0
+                : seeded.throughputPerSecond() / sequential.throughputPerSecond();
+        report().info(String.format("Bulk create speedup over sequential: %.1fx", speedup));
+        reportConnectionPool();
+        reportConnectionPhases();
+
+        double successRate = (double) (seeded.successCount() + removed.successCount())
+                / (seeded.size() + removed.size()) * 100;
+        Assert.assertEquals(seeded.size(), BULK_ITEMS, "Every payload should have a result");
+        Assert.assertTrue(successRate >= 80.0,
+                "Success rate " + successRate + "% is below acceptable threshold of 80%");
+        report().pass(String.format("Bulk seed %.1f req/s, teardown %.1f req/s, success rate %.1f%%",
+                seeded.throughputPerSecond(), removed.throughputPerSecond(), successRate));
+    }
+
+    // --- Distributed Load ---
+
+    @Test(groups = "performance", priority = 14)
+    public void testDistributedConstantRateLoad() throws InterruptedException {
+        startTest("Performance: Distributed - Constant Arrival Rate Across Worker JVMs");
+        if (!DISTRIBUTED_ENABLED) {
+            throw new SkipException("Set -Dperf.distributed.workers=N to run load from N worker JVMs");
+        }
+        LoadCoordinator coordinator = LoadCoordinator.fromSystemProperties();
+        report().info("Offering " + DISTRIBUTED_RPS + " req/s for " + DISTRIBUTED_DURATION.toSeconds()
+                + "s split across " + coordinator.getWorkers() + " worker JVMs against " + RestAssured.baseURI);
+
+        LoadCoordinator.Result result = coordinator.run(RestAssured.baseURI, LoadWorker.Workload.GET_BY_ID,
+                DISTRIBUTED_RPS, DISTRIBUTED_DURATION);
+        result.workerSummaries().forEach(line -> report().info(line));
+        ConstantRateLoadGenerator.Result overall = result.overall();
+        report().info("Merged rate: " + overall.summary());
+        report().info("Merged latency (from intended start): " + overall.latencies().summary());
+        report().info("Merged service time (uncorrected): " + overall.serviceTimes().summary());
+        report().info("Merged dispatcher lag: " + overall.dispatchLag().summary());
+        report().info("Largest worker start skew: " + result.maxStartSkewMillis() + "ms");
+
+        Assert.assertTrue(overall.successRate() >= 80.0,
+                "Success rate " + overall.successRate() + "% is below acceptable threshold of 80%");
+        report().pass(String.format("%d workers sustained %.1f req/s (shortfall %.1f%%) | corrected p99: %.2fms",
+                coordinator.getWorkers(), overall.achievedRps(), overall.shortfallPercent(),
+                overall.latencies().percentileMillis(99)));
     }
 }
@@ -0,0 +1,136 @@
+package tests.unit;
+
+import data.ActivityDataGenerator;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Unit tests for ActivityDataGenerator: the same payloads sequentially, in parallel and by
+ * index, reproducibility by seed, spliterator coverage, and distribution spec parsing.
+ */
+public class ActivityDataGeneratorTest {
+
+    private static final int COUNT = 5_000;
+
+    @Test(groups = "unit")
+    public void sequentialParallelAndIndexedPayloadsAreIdentical() {
+        ActivityDataGenerator generator = new ActivityDataGenerator().seed(7);
+
+        List<Map<String, Object>> sequential = generator.stream(COUNT).collect(Collectors.toList());
+        List<Map<String, Object>> parallel = generator.stream(COUNT).parallel().collect(Collectors.toList());
+        List<Map<String, Object>> indexed = LongStream.range(0, COUNT).mapToObj(generator::payload)
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(sequential.size(), COUNT);
+        Assert.assertEquals(parallel, sequential);
+        Assert.assertEquals(indexed, sequential);
+        Assert.assertEquals(sequential.get(0).get("id"), 1);
+        Assert.assertEquals(sequential.get(COUNT - 1).get("id"), COUNT);
+    }
+
+    @Test(groups = "unit")
+    public void sameSeedReproducesAndOtherSeedsDiffer() {
+        List<Map<String, Object>> first = new ActivityDataGenerator().seed(11).stream(200).toList();
+        List<Map<String, Object>> again = new ActivityDataGenerator().seed(11).stream(200).toList();
+        List<Map<String, Object>> other = new ActivityDataGenerator().seed(12).stream(200).toList();
+
+        Assert.assertEquals(again, first);
+        Assert.assertNotEquals(other, first);
+    }
+
+    @Test(groups = "unit")
+    public void splitsCoverTheRangeWithoutGapsOrOverlap() {
+        List<Spliterator<Map<String, Object>>> parts = new ArrayList<>();
+        split(new ActivityDataGenerator().stream(COUNT).spliterator(), parts);
+        Assert.assertTrue(parts.size() > 1, "expected the range to split, got " + parts.size() + " part(s)");
+
+        // Parts are collected in encounter order, so their ids must run 1..COUNT back to back
+        int expectedId = 1;
+        for (Spliterator<Map<String, Object>> part : parts) {
+            long estimate = part.estimateSize();
+            List<Map<String, Object>> payloads = StreamSupport.stream(part, false).toList();
+            Assert.assertEquals(payloads.size(), estimate, "SIZED estimate");
+            for (Map<String, Object> payload : payloads) {
+                Assert.assertEquals(payload.get("id"), expectedId++);
+            }
+        }
+        Assert.assertEquals(expectedId - 1, COUNT);
+    }
+
+    @Test(groups = "unit")
+    public void completedRatioIsHonoured() {
+        long completed = new ActivityDataGenerator().completedRatio(0.25).stream(COUNT)
+                .filter(payload -> (Boolean) payload.get("completed")).count();
+        Assert.assertEquals(completed / (double) COUNT, 0.25, 0.03);
+    }
+
+    @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+    public void completedRatioOutsideUnitIntervalIsRejected() {
+        new ActivityDataGenerator().completedRatio(1.5);
+    }
+
+    @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+    public void completedRatioPropertyIsValidated() {
+        String previous = System.setProperty("data.gen.completedRatio", "-0.1");
+        try {
+            ActivityDataGenerator.fromSystemProperties();
+        } finally {
+            if (previous == null) {
+                System.clearProperty("data.gen.completedRatio");
+            } else {
+                System.setProperty("data.gen.completedRatio", previous);
+            }
+        }
+    }
+
+    @Test(groups = "unit")
+    public void distributionSpecsParse() {
+        Assert.assertEquals(ActivityDataGenerator.Distribution.parse("fixed:20"),
+                new ActivityDataGenerator.Distribution("fixed", 20, 0));
+        Assert.assertEquals(ActivityDataGenerator.Distribution.parse(" Uniform:8:48 "),
+                new ActivityDataGenerator.Distribution("uniform", 8, 48));
+        Assert.assertEquals(ActivityDataGenerator.Distribution.parse("lognormal:20:0.5"),
+                new ActivityDataGenerator.Distribution("lognormal", 20, 0.5));
+    }
+
+    @DataProvider
+    public Object[][] malformedSpecs() {
+        return new Object[][]{
+                {"uniform:8"},
+                {"normal"},
+                {"fixed"},
+                {"fixed:1:2"},
+                {"uniform:8:48:3"},
+                {"uniform:8:"},
+                {"uniform:eight:48"},
+                {"poisson:3"},
+        };
+    }
+
+    @Test(groups = "unit", dataProvider = "malformedSpecs", expectedExceptions = IllegalArgumentException.class)
+    public void malformedDistributionSpecsAreRejected(String spec) {
+        ActivityDataGenerator.Distribution.parse(spec);
+    }
+
+    /**
+     * Splits recursively, collecting the leaves in encounter order (prefix before suffix).
+     */
+    private static void split(Spliterator<Map<String, Object>> spliterator, List<Spliterator<Map<String, Object>>> parts) {
+        Spliterator<Map<String, Object>> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            parts.add(spliterator);
+            return;
+        }
+        split(prefix, parts);
+        split(spliterator, parts);
+    }
+}
@@ -0,0 +1,129 @@
+package tests.unit;
+
+import services.CircuitBreaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Unit tests for CircuitBreaker: opening at the failure threshold, HALF_OPEN after the open
+ * duration, re-opening on a failed probe, closing after the probes succeed, and ignoring
+ * outcomes of calls admitted before a state change.
+ */
+public class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+    private static final int PROBES = 2;
+
+    @Test(groups = "unit")
+    public void staysClosedUntilMinCallsAreRecorded() {
+        CircuitBreaker breaker = breaker();
+        calls(breaker, true, true, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "3 failures, below minCalls");
+
+        calls(breaker, false);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN, "3 of 4 failed");
+        Assert.assertThrows(CircuitBreaker.OpenException.class, breaker::acquire);
+    }
+
+    @Test(groups = "unit")
+    public void opensWhenTheFailureShareReachesTheThreshold() {
+        CircuitBreaker breaker = breaker();
+        calls(breaker, false, false, false, true, false, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "2 of 6 failed");
+
+        calls(breaker, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN, "3 of 7 failed");
+    }
+
+    @Test(groups = "unit")
+    public void failuresOutsideTheWindowAreForgotten() {
+        CircuitBreaker breaker = breaker();
+        calls(breaker, false, false, false, false, false, false, true, true, true);
+        calls(breaker, false, false, false, false, false, false, false, false, false, false);
+        calls(breaker, true, true, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "3 of the last 10 failed, 6 in all");
+    }
+
+    @Test(groups = "unit")
+    public void goesHalfOpenAfterTheOpenDurationAndLimitsProbes() throws InterruptedException {
+        CircuitBreaker breaker = opened();
+        Assert.assertThrows(CircuitBreaker.OpenException.class, breaker::acquire);
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        breaker.acquire();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        breaker.acquire();
+        Assert.assertThrows(CircuitBreaker.OpenException.class, breaker::acquire);
+    }
+
+    @Test(groups = "unit")
+    public void failedProbeReopens() throws InterruptedException {
+        CircuitBreaker breaker = opened();
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        long probe = breaker.acquire();
+        breaker.record(probe, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        Assert.assertThrows(CircuitBreaker.OpenException.class, breaker::acquire);
+    }
+
+    @Test(groups = "unit")
+    public void closesWithAnEmptyWindowAfterAllProbesSucceed() throws InterruptedException {
+        CircuitBreaker breaker = opened();
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        long first = breaker.acquire();
+        long second = breaker.acquire();
+        breaker.record(first, false);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        breaker.record(second, false);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+
+        calls(breaker, true, true, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "window restarted below minCalls");
+    }
+
+    @Test(groups = "unit")
+    public void outcomesOfCallsAdmittedBeforeAStateChangeAreIgnored() throws InterruptedException {
+        CircuitBreaker breaker = breaker();
+        long slowSuccess = breaker.acquire();
+        long slowFailure = breaker.acquire();
+        calls(breaker, true, true, true, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        long probe = breaker.acquire();
+
+        // Admitted while CLOSED, completing while HALF_OPEN: not probes
+        breaker.record(slowFailure, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        breaker.record(slowSuccess, false);
+        breaker.record(probe, false);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN, "1 of 2 probes succeeded");
+
+        long lastProbe = breaker.acquire();
+        breaker.record(lastProbe, false);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    /**
+     * Window of 10, at least 4 calls, opens at 40% failures, 2 probes.
+     */
+    private static CircuitBreaker breaker() {
+        return new CircuitBreaker(10, 4, 40, OPEN_DURATION, PROBES);
+    }
+
+    private static CircuitBreaker opened() {
+        CircuitBreaker breaker = breaker();
+        calls(breaker, true, true, true, true);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static void calls(CircuitBreaker breaker, boolean... failed) {
+        for (boolean outcome : failed) {
+            breaker.record(breaker.acquire(), outcome);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package tests.unit;
+
+import perf.LatencyHistogram;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for LatencyHistogram bucket arithmetic, percentiles, merging and encoding.
+ * Plain TestNG with no API calls and no report output.
+ */
+public class LatencyHistogramTest {
+
+    private static final long[] VALUES = {0, 1, 63, 127, 128, 129, 255, 256, 1_000, 4_095, 65_537,
+            1_000_000, 123_456_789, LatencyHistogram.MAX_TRACKABLE_MICROS};
+
+    @Test(groups = "unit")
+    public void bucketsAreExactBelowOneHundredTwentyEightMicros() {
+        for (long value = 0; value < 128; value++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.recordMicros(value);
+            int index = onlyNonEmptyBucket(histogram);
+            Assert.assertEquals(index, value, "bucket index of " + value);
+            Assert.assertEquals(LatencyHistogram.valueAtIndex(index), value, "bucket value of " + value);
+        }
+    }
+
+    @Test(groups = "unit")
+    public void bucketValueIsWithinRelativePrecision() {
+        for (long value : VALUES) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.recordMicros(value);
+            long bucketValue = LatencyHistogram.valueAtIndex(onlyNonEmptyBucket(histogram));
+            Assert.assertTrue(Math.abs(bucketValue - value) <= Math.max(1, value / 64),
+                    "value " + value + " reported as " + bucketValue);
+        }
+    }
+
+    @Test(groups = "unit")
+    public void bucketIndexIsMonotonicAndCoversTheTrackableRange() {
+        int previous = -1;
+        for (long value : VALUES) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.recordMicros(value);
+            int index = onlyNonEmptyBucket(histogram);
+            Assert.assertTrue(index >= previous, "index of " + value + " went backwards");
+            previous = index;
+        }
+        Assert.assertEquals(previous, LatencyHistogram.BUCKET_COUNT - 1,
+                "the largest trackable value must land in the last bucket");
+    }
+
+    @Test(groups = "unit")
+    public void valuesAboveTheRangeAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(Long.MAX_VALUE);
+        histogram.recordMicros(-5);
+        Assert.assertEquals(histogram.getTotalCount(), 2);
+        Assert.assertEquals(histogram.getMaxMicros(), LatencyHistogram.MAX_TRACKABLE_MICROS);
+        Assert.assertEquals(histogram.getMinMicros(), 0);
+    }
+
+    @Test(groups = "unit")
+    public void percentilesFollowTheRecordedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.recordMicros(micros);
+        }
+        assertWithinPrecision(histogram.percentileMicros(50), 5_000);
+        assertWithinPrecision(histogram.percentileMicros(90), 9_000);
+        assertWithinPrecision(histogram.percentileMicros(99), 9_900);
+        Assert.assertEquals(histogram.percentileMicros(100), 10_000, "p100 is capped at the recorded max");
+        Assert.assertEquals(histogram.percentileMicros(0), 1, "p0 is the smallest sample");
+        Assert.assertEquals(histogram.getMeanMicros(), 5_000.5, 1e-9);
+    }
+
+    @Test(groups = "unit")
+    public void emptyHistogramReportsZeros() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.percentileMicros(99), 0);
+        Assert.assertEquals(histogram.getMinMicros(), 0);
+        Assert.assertEquals(histogram.getMaxMicros(), 0);
+        Assert.assertEquals(histogram.getMeanMicros(), 0.0);
+        Assert.assertEquals(histogram.encode().indexes().length, 0);
+        Assert.assertEquals(LatencyHistogram.decode(histogram.encode()).getTotalCount(), 0);
+    }
+
+    @Test(groups = "unit")
+    public void addMergesCountsAndExtremes() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordMicros(10);
+        first.recordMicros(20);
+        second.recordMicros(5);
+        second.recordMicros(5_000, 3);
+
+        first.add(second);
+        Assert.assertEquals(first.getTotalCount(), 6);
+        Assert.assertEquals(first.getMinMicros(), 5);
+        Assert.assertEquals(first.getMaxMicros(), 5_000);
+        Assert.assertEquals(first.getMeanMicros(), (10 + 20 + 5 + 3 * 5_000) / 6.0, 1e-9);
+    }
+
+    @Test(groups = "unit")
+    public void decodeRestoresAnEncodedHistogramExactly() {
+        LatencyHistogram original = new LatencyHistogram();
+        for (long value : VALUES) {
+            original.recordMicros(value, value % 7 + 1);
+        }
+
+        LatencyHistogram.Encoded encoded = original.encode();
+        Assert.assertEquals(encoded.indexes().length, encoded.counts().length);
+        LatencyHistogram restored = LatencyHistogram.decode(encoded);
+
+        Assert.assertEquals(restored.getTotalCount(), original.getTotalCount());
+        Assert.assertEquals(restored.getMinMicros(), original.getMinMicros());
+        Assert.assertEquals(restored.getMaxMicros(), original.getMaxMicros());
+        Assert.assertEquals(restored.getMeanMicros(), original.getMeanMicros(), 1e-9);
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            Assert.assertEquals(restored.countAtIndex(i), original.countAtIndex(i), "bucket " + i);
+        }
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            Assert.assertEquals(restored.percentileMicros(percentile), original.percentileMicros(percentile));
+        }
+    }
+
+    private static int onlyNonEmptyBucket(LatencyHistogram histogram) {
+        int found = -1;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            if (histogram.countAtIndex(i) > 0) {
+                Assert.assertEquals(found, -1, "more than one bucket is non-empty");
+                found = i;
+            }
+        }
+        Assert.assertTrue(found >= 0, "no bucket is non-empty");
+        return found;
+    }
+
+    private static void assertWithinPrecision(long actual, long expected) {
+        Assert.assertTrue(Math.abs(actual - expected) <= expected / 64 + 1,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
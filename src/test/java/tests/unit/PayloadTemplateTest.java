@@ -0,0 +1,109 @@
+package tests.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import data.PayloadTemplate;
+import data.RequestDataFactory;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Unit tests for PayloadTemplate escaping and for its equivalence with the Jackson
+ * serialization of the Map payloads it replaces under -Ddata.payloadTemplates=true.
+ */
+public class PayloadTemplateTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final RequestDataFactory dataFactory = new RequestDataFactory();
+
+    @DataProvider
+    public Object[][] titles() {
+        return new Object[][]{
+                {"Sample Task"},
+                {""},
+                {"quote \" and backslash \\"},
+                {"controls \n\t\r\u0000\u001f end"},
+                {"latin \u00E9, greek \u03BB, cjk \u6F22\u5B57"},
+                {"emoji \uD83D\uDE80 and math \uD835\uDC00"},
+                {"slash / and del \u007f"},
+        };
+    }
+
+    @Test(groups = "unit", dataProvider = "titles")
+    public void renderedTitleRoundTripsThroughJson(String title) throws Exception {
+        JsonNode rendered = parse(new PayloadTemplate(1).render(42, title, true));
+        Assert.assertEquals(rendered.get("id").asInt(), 42);
+        Assert.assertEquals(rendered.get("title").asText(), title);
+        Assert.assertTrue(rendered.get("completed").asBoolean());
+    }
+
+    @Test(groups = "unit")
+    public void unpairedSurrogatesBecomeReplacementCharacters() throws Exception {
+        String title = "high \uD83D alone, low \uDE80 alone, reversed \uDE80\uD83D, end \uD83D";
+        byte[] bytes = new PayloadTemplate(1).render(1, title, false);
+
+        assertValidUtf8(bytes);
+        Assert.assertEquals(parse(bytes).get("title").asText(),
+                "high \uFFFD alone, low \uFFFD alone, reversed \uFFFD\uFFFD, end \uFFFD");
+    }
+
+    @Test(groups = "unit")
+    public void integerIdsAreWrittenExactly() throws Exception {
+        PayloadTemplate template = new PayloadTemplate(1);
+        for (int id : new int[]{0, 7, 10, 99, 100, -1, -10, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            Assert.assertEquals(parse(template.render(id, "t", false)).get("id").asInt(), id, "id " + id);
+        }
+    }
+
+    @Test(groups = "unit", dataProvider = "titles")
+    public void templatesMatchTheJacksonSerializedPayloads(String title) throws Exception {
+        assertSameJson(dataFactory.buildNewActivityPayloadBytes(), dataFactory.buildNewActivityPayload());
+        assertSameJson(dataFactory.buildActivityPayloadBytes(5, title, true),
+                dataFactory.buildActivityPayload(5, title, true));
+        assertSameJson(dataFactory.buildUpdatePayloadBytes(9, title), dataFactory.buildUpdatePayload(9, title));
+    }
+
+    /**
+     * Field order may differ and the template's dueDate is truncated to its granule, so
+     * trees are compared without dueDate and the two dates must fall within a granule.
+     */
+    private static void assertSameJson(byte[] templateBytes, Map<String, Object> payload) throws Exception {
+        assertValidUtf8(templateBytes);
+        ObjectNode fromTemplate = (ObjectNode) parse(templateBytes);
+        ObjectNode fromMap = (ObjectNode) parse(mapper.writeValueAsBytes(payload));
+
+        OffsetDateTime templateDue = OffsetDateTime.parse(fromTemplate.remove("dueDate").asText());
+        OffsetDateTime mapDue = OffsetDateTime.parse(fromMap.remove("dueDate").asText());
+        long granuleMillis = Long.getLong("data.dueDateGranularityMs", 60_000);
+        Assert.assertTrue(Math.abs(Duration.between(templateDue, mapDue).toMillis()) <= granuleMillis,
+                "dueDate " + templateDue + " vs " + mapDue);
+        // JsonNode.equals ignores field order; Assert.assertEquals would iterate the values in order
+        Assert.assertTrue(fromTemplate.equals(fromMap), fromTemplate + " vs " + fromMap);
+    }
+
+    private static JsonNode parse(byte[] bytes) throws Exception {
+        return mapper.readTree(bytes);
+    }
+
+    private static void assertValidUtf8(byte[] bytes) {
+        try {
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes));
+        } catch (CharacterCodingException e) {
+            Assert.fail("Rendered payload is not valid UTF-8: " + e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package tests.unit;
+
+import services.RateLimiter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the GCRA RateLimiter: a burst passes at once, then permits are paced at
+ * the configured rate.
+ */
+public class RateLimiterTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test(groups = "unit")
+    public void burstPassesAtOnceThenPermitsArePaced() {
+        // 50/s is one permit every 20ms
+        RateLimiter limiter = new RateLimiter(50, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        long burst = System.nanoTime() - start;
+        Assert.assertTrue(burst < 20 * MS, "burst of 5 took " + burst / MS + "ms");
+
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        long paced = System.nanoTime() - start;
+        Assert.assertTrue(paced >= 95 * MS, "5 permits past the burst took " + paced / MS + "ms");
+        Assert.assertTrue(limiter.summary().contains("permits=10 throttled=5"), limiter.summary());
+    }
+
+    @Test(groups = "unit")
+    public void idleTimeRefillsTheBurstButNoMore() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(50, 3);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+        Thread.sleep(200);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+        long elapsed = System.nanoTime() - start;
+        Assert.assertTrue(elapsed >= 15 * MS, "the fourth permit after idling must wait, took " + elapsed / MS + "ms");
+        Assert.assertTrue(limiter.summary().contains("permits=7 throttled=1"), limiter.summary());
+    }
+
+    @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+    public void nonPositiveRateIsRejected() {
+        new RateLimiter(0, 1);
+    }
+
+    @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+    public void burstBelowOneIsRejected() {
+        new RateLimiter(10, 0);
+    }
+}
@@ -0,0 +1,165 @@
+package tests.unit;
+
+import perf.PerformanceBaseline;
+import perf.RegressionGate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+
+/**
+ * Unit tests for RegressionGate: the Mann-Whitney U statistic and p-value, the materiality
+ * thresholds, and the error rate gate. Expected U and p-values were worked out by hand
+ * from the textbook formulas (normal approximation with continuity and tie correction).
+ */
+public class RegressionGateTest {
+
+    private static final String ENDPOINT = "GET /api/v1/Activities/{id}";
+
+    private final RegressionGate gate = new RegressionGate(0.01, 20, 1.0, 1.0);
+
+    @Test(groups = "unit")
+    public void separatedSamplesGiveMaximalUAndItsPValue() {
+        RegressionGate.Comparison comparison = compareOne(new RegressionGate(0.05, 20, 1.0, 1.0),
+                endpoint(100, 0, 1, 2, 3), endpoint(100, 0, 4, 5, 6));
+
+        Assert.assertEquals(comparison.superiority(), 1.0, 1e-12, "U = 9 of 9 pairs");
+        Assert.assertEquals(comparison.pValue(), 0.0404278, 1e-6);
+        Assert.assertEquals(comparison.medianShiftMillis(), 3.0, 1e-12);
+        Assert.assertEquals(comparison.medianShiftPercent(), 150.0, 1e-9);
+        Assert.assertEquals(comparison.verdict(), RegressionGate.Verdict.REGRESSED);
+        Assert.assertEquals(comparison.regressed(), List.of("latency"));
+    }
+
+    @Test(groups = "unit")
+    public void tiesUseAverageRanksAndTheTieCorrectedVariance() {
+        RegressionGate.Comparison comparison = compareOne(gate,
+                endpoint(100, 0, 1, 2, 3, 3, 4, 5), endpoint(100, 0, 3, 3, 4, 5, 6, 6));
+
+        Assert.assertEquals(comparison.superiority(), 28.0 / 36, 1e-12, "U = 28 of 36 pairs");
+        Assert.assertEquals(comparison.pValue(), 0.0597334, 1e-6);
+    }
+
+    @Test(groups = "unit")
+    public void smallSamplesAreNotSignificantAtTheDefaultAlpha() {
+        RegressionGate.Comparison comparison = compareOne(gate, endpoint(100, 0, 1, 2, 3), endpoint(100, 0, 4, 5, 6));
+        Assert.assertEquals(comparison.verdict(), RegressionGate.Verdict.UNCHANGED);
+        Assert.assertTrue(comparison.regressed().isEmpty());
+    }
+
+    @Test(groups = "unit")
+    public void identicalDistributionsAreUnchanged() {
+        RegressionGate.Comparison comparison = compareOne(gate, endpoint(100, 0, range(10, 200)),
+                endpoint(100, 0, range(10, 200)));
+        Assert.assertEquals(comparison.verdict(), RegressionGate.Verdict.UNCHANGED);
+        Assert.assertEquals(comparison.superiority(), 0.5, 1e-12);
+        Assert.assertTrue(comparison.pValue() > 0.4, "p=" + comparison.pValue());
+    }
+
+    @Test(groups = "unit")
+    public void largeSignificantShiftsAreRegressionsOrImprovements() {
+        double[] base = range(10, 200);
+        double[] slower = DoubleStream.of(base).map(v -> v * 1.5).toArray();
+        double[] faster = DoubleStream.of(base).map(v -> v * 0.5).toArray();
+
+        Assert.assertEquals(compareOne(gate, endpoint(100, 0, base), endpoint(100, 0, slower)).verdict(),
+                RegressionGate.Verdict.REGRESSED);
+        Assert.assertEquals(compareOne(gate, endpoint(100, 0, base), endpoint(100, 0, faster)).verdict(),
+                RegressionGate.Verdict.IMPROVED);
+    }
+
+    @Test(groups = "unit")
+    public void significantButSmallShiftsAreUnchanged() {
+        // A tight 100-102ms spread every sample of which is 5% slower: highly significant,
+        // below the 20% threshold
+        double[] base = DoubleStream.iterate(100, v -> v + 0.01).limit(200).toArray();
+        double[] slightlySlower = DoubleStream.of(base).map(v -> v * 1.05).toArray();
+        // Every sample 0.1ms slower on a 0.15ms endpoint: over 20%, below the 1ms threshold
+        double[] fast = DoubleStream.iterate(0.1, v -> v + 0.0005).limit(200).toArray();
+        double[] fastShifted = DoubleStream.of(fast).map(v -> v + 0.1).toArray();
+
+        RegressionGate.Comparison relative = compareOne(gate, endpoint(100, 0, base), endpoint(100, 0, slightlySlower));
+        Assert.assertTrue(relative.pValue() < 0.01, "p=" + relative.pValue());
+        Assert.assertEquals(relative.verdict(), RegressionGate.Verdict.UNCHANGED);
+        RegressionGate.Comparison absolute = compareOne(gate, endpoint(100, 0, fast), endpoint(100, 0, fastShifted));
+        Assert.assertTrue(absolute.pValue() < 0.01 && absolute.medianShiftPercent() > 20,
+                "p=" + absolute.pValue() + " shift=" + absolute.medianShiftPercent() + "%");
+        Assert.assertEquals(absolute.verdict(), RegressionGate.Verdict.UNCHANGED);
+    }
+
+    @Test(groups = "unit")
+    public void throughputIsReportedButNotGated() {
+        double[] samples = range(10, 200);
+        RegressionGate.Comparison dropped = compareOne(gate, endpoint(100, 0, samples), endpoint(50, 0, samples));
+        Assert.assertEquals(dropped.verdict(), RegressionGate.Verdict.UNCHANGED);
+        Assert.assertTrue(dropped.summary().contains("throughput 100.0 -> 50.0 req/s (-50.0%)"), dropped.summary());
+    }
+
+    @Test(groups = "unit")
+    public void significantErrorIncreaseRegresses() {
+        double[] samples = range(10, 200);
+        // 1 of 200 failed before, 10 of 200 now
+        RegressionGate.Comparison comparison = compareOne(gate, endpoint(100, 0.5, samples),
+                endpoint(100, 5.0, samples));
+        Assert.assertEquals(comparison.errorPValue(), 0.0029643, 1e-6);
+        Assert.assertEquals(comparison.verdict(), RegressionGate.Verdict.REGRESSED);
+        Assert.assertEquals(comparison.regressed(), List.of("errors"));
+    }
+
+    @Test(groups = "unit")
+    public void errorIncreaseIsIgnoredWhenSmallOrNotSignificant() {
+        double[] samples = range(10, 200);
+        // 0 -> 3 of 200: over the threshold, not significant at 0.01
+        RegressionGate.Comparison few = compareOne(gate, endpoint(100, 0, samples), endpoint(100, 1.5, samples));
+        Assert.assertTrue(few.errorPValue() > 0.01, "p=" + few.errorPValue());
+        Assert.assertEquals(few.verdict(), RegressionGate.Verdict.UNCHANGED);
+
+        double[] many = range(10, 20_000);
+        // 0 -> 0.5% of 20000: significant, below the one point threshold
+        RegressionGate.Comparison small = compareOne(gate, endpoint(100, 0, many), endpoint(100, 0.5, many));
+        Assert.assertTrue(small.errorPValue() < 0.01, "p=" + small.errorPValue());
+        Assert.assertEquals(small.verdict(), RegressionGate.Verdict.UNCHANGED);
+
+        Assert.assertEquals(compareOne(gate, endpoint(100, 0, samples), endpoint(100, 0, samples)).errorPValue(), 1.0);
+    }
+
+    @Test(groups = "unit")
+    public void endpointsWithoutBaselineAreNew() {
+        List<RegressionGate.Comparison> comparisons = gate.compare(null, Map.of(ENDPOINT, endpoint(100, 0, 1, 2)));
+        Assert.assertEquals(comparisons.size(), 1);
+        Assert.assertEquals(comparisons.get(0).verdict(), RegressionGate.Verdict.NEW);
+        Assert.assertTrue(comparisons.get(0).summary().contains("no baseline yet"));
+    }
+
+    @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+    public void emptyCurrentSamplesAreRejected() {
+        compareOne(gate, endpoint(100, 0, 1, 2, 3), endpoint(100, 0));
+    }
+
+    @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+    public void emptyBaselineSamplesAreRejected() {
+        compareOne(gate, endpoint(100, 0), endpoint(100, 0, 1, 2, 3));
+    }
+
+    private static RegressionGate.Comparison compareOne(RegressionGate gate, PerformanceBaseline.Endpoint before,
+                                                        PerformanceBaseline.Endpoint now) {
+        PerformanceBaseline.Snapshot baseline = PerformanceBaseline.Snapshot.of(Map.of(ENDPOINT, before));
+        List<RegressionGate.Comparison> comparisons = gate.compare(baseline, Map.of(ENDPOINT, now));
+        Assert.assertEquals(comparisons.size(), 1);
+        return comparisons.get(0);
+    }
+
+    private static PerformanceBaseline.Endpoint endpoint(double throughputRps, double errorPercent,
+                                                         double... latenciesMs) {
+        return new PerformanceBaseline.Endpoint(throughputRps, errorPercent, latenciesMs);
+    }
+
+    /**
+     * {@code count} evenly spread samples starting at {@code from} milliseconds.
+     */
+    private static double[] range(double from, int count) {
+        return DoubleStream.iterate(from, v -> v + 0.37).limit(count).toArray();
+    }
+}
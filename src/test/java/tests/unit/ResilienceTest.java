@@ -0,0 +1,146 @@
+package tests.unit;
+
+import io.restassured.response.Response;
+import services.CircuitBreaker;
+import services.RateLimiter;
+import services.Resilience;
+import services.RetryPolicy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for Resilience.execute: retries of idempotent requests only, the breaker
+ * refusing first attempts and cutting retries short, and failures reaching the caller.
+ * Responses are stand-ins that only answer the status code and headers.
+ */
+public class ResilienceTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(60);
+
+    @Test(groups = "unit")
+    public void getIsRetriedUntilItSucceeds() {
+        Attempts attempts = new Attempts(503, 502, 200);
+        Response response = new Resilience(null, retries(3), null).execute("GET", attempts);
+        Assert.assertEquals(response.getStatusCode(), 200);
+        Assert.assertEquals(attempts.count(), 3);
+    }
+
+    @Test(groups = "unit")
+    public void postIsNeverRetried() {
+        Attempts attempts = new Attempts(503, 200);
+        Response response = new Resilience(null, retries(3), null).execute("POST", attempts);
+        Assert.assertEquals(response.getStatusCode(), 503);
+        Assert.assertEquals(attempts.count(), 1);
+    }
+
+    @Test(groups = "unit")
+    public void lastFailureIsReturnedWhenAttemptsRunOut() {
+        Attempts attempts = new Attempts(503, 503, 503, 200);
+        Response response = new Resilience(null, retries(3), null).execute("DELETE", attempts);
+        Assert.assertEquals(response.getStatusCode(), 503);
+        Assert.assertEquals(attempts.count(), 3);
+    }
+
+    @Test(groups = "unit")
+    public void exceptionOfTheLastAttemptIsRethrownAndCountsAsAFailure() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 50, OPEN_DURATION, 1);
+        Resilience resilience = new Resilience(null, retries(2), breaker);
+        AtomicInteger calls = new AtomicInteger();
+        IllegalStateException thrown = Assert.expectThrows(IllegalStateException.class,
+                () -> resilience.execute("GET", () -> {
+                    calls.incrementAndGet();
+                    throw new IllegalStateException("connection reset");
+                }));
+
+        Assert.assertEquals(thrown.getMessage(), "connection reset");
+        Assert.assertEquals(calls.get(), 2);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+    }
+
+    @Test(groups = "unit")
+    public void openBreakerRefusesTheFirstAttemptWithoutSending() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 50, OPEN_DURATION, 1);
+        Resilience resilience = new Resilience(null, null, breaker);
+        resilience.execute("GET", new Attempts(500));
+        resilience.execute("GET", new Attempts(500));
+
+        Attempts attempts = new Attempts(200);
+        Assert.assertThrows(CircuitBreaker.OpenException.class, () -> resilience.execute("GET", attempts));
+        Assert.assertEquals(attempts.count(), 0);
+    }
+
+    @Test(groups = "unit")
+    public void retriesStopWhenTheBreakerOpens() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 50, OPEN_DURATION, 1);
+        Attempts attempts = new Attempts(503, 503, 503, 200);
+        Response response = new Resilience(null, retries(4), breaker).execute("GET", attempts);
+
+        Assert.assertEquals(response.getStatusCode(), 503, "outcome of the last attempt the breaker let through");
+        Assert.assertEquals(attempts.count(), 2);
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+    }
+
+    @Test(groups = "unit")
+    public void everyAttemptTakesARateLimiterPermit() {
+        RateLimiter limiter = new RateLimiter(1_000, 10);
+        new Resilience(limiter, retries(3), null).execute("GET", new Attempts(503, 503, 200));
+        Assert.assertTrue(limiter.summary().contains("permits=3"), limiter.summary());
+    }
+
+    @Test(groups = "unit")
+    public void summariesListOnlyEnabledComponents() {
+        Assert.assertFalse(new Resilience(null, new RetryPolicy(1, Duration.ZERO, Duration.ZERO, 10), null)
+                .isEnabled());
+        List<String> summaries = new Resilience(null, retries(3), null).summaries();
+        Assert.assertEquals(summaries.size(), 1);
+        Assert.assertTrue(summaries.get(0).startsWith("Retries: "), summaries.get(0));
+    }
+
+    /**
+     * Up to {@code maxAttempts} attempts with 1ms backoff and the default budget.
+     */
+    private static RetryPolicy retries(int maxAttempts) {
+        return new RetryPolicy(maxAttempts, Duration.ofMillis(1), Duration.ofMillis(1), 10);
+    }
+
+    /**
+     * Answers each attempt with the next status in line.
+     */
+    private static final class Attempts implements Supplier<Response> {
+
+        private final Deque<Integer> statuses = new ArrayDeque<>();
+        private int count;
+
+        Attempts(Integer... statuses) {
+            this.statuses.addAll(List.of(statuses));
+        }
+
+        @Override
+        public Response get() {
+            count++;
+            return response(statuses.removeFirst());
+        }
+
+        int count() {
+            return count;
+        }
+    }
+
+    private static Response response(int status) {
+        return (Response) Proxy.newProxyInstance(Response.class.getClassLoader(), new Class<?>[]{Response.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getStatusCode", "statusCode" -> status;
+                    case "getHeader", "header" -> null;
+                    case "toString" -> "Response " + status;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,87 @@
+package tests.unit;
+
+import services.RetryPolicy;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Unit tests for RetryPolicy: which requests are retryable, the attempt limit, the retry
+ * budget running dry and refilling, and the bounds of the jittered backoff.
+ */
+public class RetryPolicyTest {
+
+    private static final Duration BASE_DELAY = Duration.ofMillis(50);
+    private static final Duration MAX_DELAY = Duration.ofMillis(2_000);
+
+    @DataProvider
+    public Object[][] outcomes() {
+        return new Object[][]{
+                {"GET", 503, true},
+                {"GET", 429, true},
+                {"PUT", -1, true},
+                {"DELETE", 504, true},
+                {"GET", 500, false},
+                {"GET", 404, false},
+                {"GET", 200, false},
+                {"POST", 503, false},
+                {"POST", 429, false},
+                {"POST", -1, false},
+        };
+    }
+
+    @Test(groups = "unit", dataProvider = "outcomes")
+    public void onlyIdempotentMethodsWithTransientFailuresAreRetryable(String method, int status, boolean retryable) {
+        Assert.assertEquals(new RetryPolicy(3, BASE_DELAY, MAX_DELAY, 10).isRetryable(method, status), retryable);
+    }
+
+    @Test(groups = "unit")
+    public void attemptsStopAtMaxAttempts() {
+        RetryPolicy policy = new RetryPolicy(3, BASE_DELAY, MAX_DELAY, 10);
+        policy.onRequest();
+        Assert.assertTrue(policy.shouldRetry(1));
+        Assert.assertTrue(policy.shouldRetry(2));
+        Assert.assertFalse(policy.shouldRetry(3));
+        Assert.assertFalse(new RetryPolicy(1, BASE_DELAY, MAX_DELAY, 10).isEnabled());
+    }
+
+    @Test(groups = "unit")
+    public void budgetRunsDryAfterTheReserveAndRefillsWithRequests() {
+        RetryPolicy policy = new RetryPolicy(100, BASE_DELAY, MAX_DELAY, 10);
+        int granted = 0;
+        while (policy.shouldRetry(1)) {
+            granted++;
+        }
+        Assert.assertEquals(granted, 10, "reserve of 10 tokens");
+        Assert.assertFalse(policy.shouldRetry(1));
+
+        // 10% per request: nine requests are not yet a whole token, the tenth is
+        for (int i = 0; i < 9; i++) {
+            policy.onRequest();
+        }
+        Assert.assertFalse(policy.shouldRetry(1));
+        policy.onRequest();
+        Assert.assertTrue(policy.shouldRetry(1));
+        Assert.assertFalse(policy.shouldRetry(1));
+        Assert.assertTrue(policy.summary().contains("budgetDenied=4"), policy.summary());
+    }
+
+    @Test(groups = "unit")
+    public void backoffIsBoundedByTheExponentialCeilingAndMaxDelay() {
+        RetryPolicy policy = new RetryPolicy(10, BASE_DELAY, MAX_DELAY, 10);
+        for (int i = 0; i < 200; i++) {
+            Assert.assertTrue(policy.backoff(1, -1).compareTo(BASE_DELAY) <= 0);
+            Assert.assertTrue(policy.backoff(3, -1).compareTo(BASE_DELAY.multipliedBy(4)) <= 0);
+            Assert.assertTrue(policy.backoff(20, -1).compareTo(MAX_DELAY) <= 0);
+        }
+    }
+
+    @Test(groups = "unit")
+    public void retryAfterIsALowerBoundCappedAtMaxDelay() {
+        RetryPolicy policy = new RetryPolicy(10, BASE_DELAY, MAX_DELAY, 10);
+        Assert.assertTrue(policy.backoff(1, 1).compareTo(Duration.ofSeconds(1)) >= 0);
+        Assert.assertEquals(policy.backoff(1, 60), MAX_DELAY);
+    }
+}
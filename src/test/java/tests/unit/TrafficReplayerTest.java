@@ -0,0 +1,124 @@
+package tests.unit;
+
+import perf.TrafficLog;
+import perf.TrafficReplayer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Unit tests for TrafficReplayer: a capture is written in completion order, and the replay
+ * must put overlapping exchanges back in start order and time them from the earliest one.
+ */
+public class TrafficReplayerTest {
+
+    private static final long MS = 1_000_000;
+
+    private Path trafficLog;
+
+    @BeforeMethod(groups = "unit")
+    public void createLog() throws IOException {
+        trafficLog = Files.createTempFile("traffic", ".bin");
+    }
+
+    @AfterMethod(groups = "unit", alwaysRun = true)
+    public void deleteLog() throws IOException {
+        Files.deleteIfExists(trafficLog);
+    }
+
+    @Test(groups = "unit")
+    public void overlappingCaptureIsReplayedInStartOrder() throws Exception {
+        // Request i starts i * 40ms in and takes (5 - i) * 60ms, so they all overlap and
+        // complete, and are appended, in reverse start order
+        int requests = 5;
+        long[] starts = new long[requests];
+        CountDownLatch done = new CountDownLatch(requests);
+        ExecutorService clients = Executors.newFixedThreadPool(requests);
+        try (TrafficLog.Writer writer = new TrafficLog.Writer(trafficLog)) {
+            long base = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                clients.execute(() -> {
+                    parkUntil(base + request * 40 * MS);
+                    long start = System.nanoTime();
+                    starts[request] = start;
+                    parkUntil(start + (requests - request) * 60 * MS);
+                    writer.append(start, "GET", "/api/v1/Activities/" + request, new byte[0], 200,
+                            System.nanoTime() - start);
+                    done.countDown();
+                });
+            }
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            clients.shutdownNow();
+        }
+
+        List<String> fileOrder = new ArrayList<>();
+        TrafficLog.read(trafficLog, entry -> fileOrder.add(entry.path()));
+        Assert.assertEquals(fileOrder.get(0), "/api/v1/Activities/4", "capture is in completion order");
+
+        List<String> sent = new ArrayList<>();
+        List<Long> sentAt = new ArrayList<>();
+        TrafficReplayer.Result result = new TrafficReplayer(1.0, Executors.newCachedThreadPool())
+                .replay(trafficLog, (method, path, body) -> {
+                    synchronized (sent) {
+                        sent.add(path);
+                        sentAt.add(System.nanoTime());
+                    }
+                    return 200;
+                });
+
+        Assert.assertEquals(sent, List.of("/api/v1/Activities/0", "/api/v1/Activities/1", "/api/v1/Activities/2",
+                "/api/v1/Activities/3", "/api/v1/Activities/4"));
+        Assert.assertEquals(result.recordedSpan(), Duration.ofNanos(starts[requests - 1] - starts[0]));
+        Assert.assertEquals(result.statusMismatches(), 0);
+        for (int i = 1; i < requests; i++) {
+            long gap = sentAt.get(i) - sentAt.get(0);
+            long recorded = starts[i] - starts[0];
+            Assert.assertTrue(gap >= recorded - 20 * MS, "request " + i + " sent " + gap / MS + "ms in, captured "
+                    + recorded / MS + "ms in");
+        }
+    }
+
+    @Test(groups = "unit")
+    public void slowRequestAppendedLastStillOpensTheReplay() throws Exception {
+        try (TrafficLog.Writer writer = new TrafficLog.Writer(trafficLog)) {
+            long base = System.nanoTime();
+            writer.append(base + 100 * MS, "GET", "/fast", new byte[0], 200, 10 * MS);
+            writer.append(base + 200 * MS, "POST", "/fast", new byte[]{1}, 201, 10 * MS);
+            writer.append(base, "GET", "/slow", new byte[0], 200, 300 * MS);
+        }
+
+        List<String> sent = new ArrayList<>();
+        TrafficReplayer.Result result = new TrafficReplayer(4.0, Executors.newSingleThreadExecutor())
+                .replay(trafficLog, (method, path, body) -> {
+                    sent.add(method + " " + path);
+                    return method.equals("POST") ? 201 : 200;
+                });
+
+        Assert.assertEquals(sent, List.of("GET /slow", "GET /fast", "POST /fast"));
+        Assert.assertEquals(result.recordedSpan(), Duration.ofMillis(200));
+        Assert.assertEquals(result.replayed(), 3);
+        Assert.assertEquals(result.succeeded(), 3);
+    }
+
+    private static void parkUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Single-pass scanner for a JSON array of activities.
+ *
+ * Walks the token stream element by element, counting activities, checking that each
+ * has a numeric id, string title and dueDate, and boolean completed, and keeping a
+ * fixed-size uniform reservoir sample. Only elements entering the sample are read
+ * into a Map; the rest are validated from their token types alone. Nothing else is
+ * retained, so memory stays constant however large the collection is.
+ */
+public class ActivityStreamScanner {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int MAX_RECORDED_ERRORS = 5;
+    // Bits set in the mask returned by readActivity, one per correctly typed field
+    private static final int HAS_ID = 1;
+    private static final int HAS_TITLE = 2;
+    private static final int HAS_DUE_DATE = 4;
+    private static final int HAS_COMPLETED = 8;
+
+    private final int sampleSize;
+    private final long seed;
+
+    public ActivityStreamScanner(int sampleSize) {
+        this(sampleSize, 42L);
+    }
+
+    public ActivityStreamScanner(int sampleSize, long seed) {
+        this.sampleSize = sampleSize;
+        this.seed = seed;
+    }
+
+    public Summary scan(byte[] body) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return scan(parser);
+        } catch (IOException e) {
+            return Summary.malformed(e.getMessage());
+        }
+    }
+
+    public Summary scan(InputStream body) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return scan(parser);
+        } catch (IOException e) {
+            return Summary.malformed(e.getMessage());
+        }
+    }
+
+    private Summary scan(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return Summary.malformed("Expected a JSON array but found " + parser.currentToken());
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Map<String, Object>> samples = new ArrayList<>(sampleSize);
+        List<String> errors = new ArrayList<>(MAX_RECORDED_ERRORS);
+        long count = 0;
+        long invalid = 0;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                return Summary.malformed("Array was not terminated after " + count + " elements");
+            }
+            count++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                invalid++;
+                recordError(errors, "Element " + count + " is " + token + ", not an object");
+                continue;
+            }
+
+            // Reservoir sampling keeps a uniform sample without knowing the total up front
+            int slot = -1;
+            if (samples.size() < sampleSize) {
+                slot = samples.size();
+            } else if (sampleSize > 0) {
+                long draw = random.nextLong(count);
+                if (draw < sampleSize) {
+                    slot = (int) draw;
+                }
+            }
+
+            Map<String, Object> activity = slot < 0 ? null : new LinkedHashMap<>(8);
+            String problem = validate(readActivity(parser, activity));
+            if (problem != null) {
+                invalid++;
+                recordError(errors, "Element " + count + " " + problem);
+            }
+            if (slot == samples.size()) {
+                samples.add(activity);
+            } else if (slot >= 0) {
+                samples.set(slot, activity);
+            }
+        }
+        return new Summary(count, invalid, Collections.unmodifiableList(samples), errors, true);
+    }
+
+    /**
+     * Reads one object, returning which required fields it has with the right type (the
+     * last stored occurrence of a repeated field wins). Values are only copied into
+     * {@code activity} when it is not null.
+     */
+    private static int readActivity(JsonParser parser, Map<String, Object> activity) throws IOException {
+        int present = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            int required = requiredBit(field);
+            // Objects, arrays and floats are skipped, so they do not replace an earlier value
+            if (required != 0 && value.isScalarValue() && value != JsonToken.VALUE_NUMBER_FLOAT) {
+                present = hasExpectedType(required, value) ? present | required : present & ~required;
+            }
+            if (activity == null) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (value) {
+                case VALUE_NUMBER_INT -> activity.put(field, parser.getLongValue());
+                case VALUE_STRING -> activity.put(field, parser.getText());
+                case VALUE_TRUE, VALUE_FALSE -> activity.put(field, value == JsonToken.VALUE_TRUE);
+                case VALUE_NULL -> activity.put(field, null);
+                default -> parser.skipChildren();
+            }
+        }
+        return present;
+    }
+
+    private static int requiredBit(String field) {
+        return switch (field) {
+            case "id" -> HAS_ID;
+            case "title" -> HAS_TITLE;
+            case "dueDate" -> HAS_DUE_DATE;
+            case "completed" -> HAS_COMPLETED;
+            default -> 0;
+        };
+    }
+
+    private static boolean hasExpectedType(int required, JsonToken value) {
+        return switch (required) {
+            case HAS_ID -> value == JsonToken.VALUE_NUMBER_INT;
+            case HAS_COMPLETED -> value.isBoolean();
+            default -> value == JsonToken.VALUE_STRING;
+        };
+    }
+
+    private static String validate(int present) {
+        if ((present & HAS_ID) == 0) {
+            return "has no numeric 'id'";
+        }
+        if ((present & HAS_TITLE) == 0) {
+            return "has no string 'title'";
+        }
+        if ((present & HAS_DUE_DATE) == 0) {
+            return "has no string 'dueDate'";
+        }
+        if ((present & HAS_COMPLETED) == 0) {
+            return "has no boolean 'completed'";
+        }
+        return null;
+    }
+
+    private static void recordError(List<String> errors, String error) {
+        if (errors.size() < MAX_RECORDED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    /**
+     * Outcome of a scan; {@code errors} holds only the first few problems found.
+     */
+    public record Summary(long count, long invalid, List<Map<String, Object>> samples,
+                          List<String> errors, boolean wellFormed) {
+
+        static Summary malformed(String reason) {
+            return new Summary(0, 0, List.of(), List.of(reason), false);
+        }
+
+        public boolean isValid() {
+            return wellFormed && invalid == 0;
+        }
+    }
+}
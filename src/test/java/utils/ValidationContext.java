@@ -0,0 +1,234 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parse-once batch of response assertions.
+ *
+ * The body is tokenized a single time into a flat path index ("id", "owner.name",
+ * "[0].title") and every queued assertion is a hash lookup against it, unlike the
+ * ResponseValidator helpers which re-run response.jsonPath() per field. All failures
+ * are collected and raised together by {@link #verify()}, and the time spent
+ * validating is tracked separately from the network time of the response.
+ *
+ * <pre>
+ * ResponseValidator.validate(response)
+ *         .statusCode(200)
+ *         .fieldEquals("id", 3)
+ *         .fieldNotNull("title")
+ *         .verify();
+ * </pre>
+ */
+public final class ValidationContext {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Object NULL = new Object();
+
+    private final Response response;
+    private final Map<String, Object> index;
+    private final String parseError;
+    private final List<String> failures = new ArrayList<>();
+    private int assertions;
+    private long validationNanos;
+
+    private ValidationContext(Response response) {
+        long start = System.nanoTime();
+        this.response = response;
+        Map<String, Object> parsed = new HashMap<>();
+        String error = null;
+        byte[] body = response.asByteArray();
+        if (body.length > 0) {
+            try (JsonParser parser = JSON.createParser(body)) {
+                parser.nextToken();
+                flatten(parser, "", parsed);
+            } catch (IOException e) {
+                error = e.getMessage();
+            }
+        }
+        this.index = parsed;
+        this.parseError = error;
+        validationNanos += System.nanoTime() - start;
+    }
+
+    public static ValidationContext of(Response response) {
+        return new ValidationContext(response);
+    }
+
+    // --- Assertions ---
+
+    public ValidationContext statusCode(int expectedCode) {
+        long start = System.nanoTime();
+        int actual = response.getStatusCode();
+        check(actual == expectedCode, "Expected status " + expectedCode + " but got " + actual);
+        return timed(start);
+    }
+
+    public ValidationContext contentType(String expectedType) {
+        long start = System.nanoTime();
+        String contentType = response.getContentType();
+        check(contentType != null && contentType.contains(expectedType),
+                "Expected Content-Type containing '" + expectedType + "' but got '" + contentType + "'");
+        return timed(start);
+    }
+
+    public ValidationContext responseTimeBelow(long thresholdMs) {
+        long start = System.nanoTime();
+        long actualTime = response.getTime();
+        check(actualTime < thresholdMs,
+                "Response time " + actualTime + "ms exceeded threshold of " + thresholdMs + "ms");
+        return timed(start);
+    }
+
+    public ValidationContext fieldEquals(String fieldPath, Object expectedValue) {
+        long start = System.nanoTime();
+        Object actual = get(fieldPath);
+        check(valuesEqual(actual, expectedValue),
+                "Field '" + fieldPath + "' expected '" + expectedValue + "' but got '" + actual + "'");
+        return timed(start);
+    }
+
+    public ValidationContext fieldNotNull(String fieldPath) {
+        long start = System.nanoTime();
+        check(get(fieldPath) != null, "Field '" + fieldPath + "' should not be null");
+        return timed(start);
+    }
+
+    /**
+     * Passes when the field exists, even if its value is null or false.
+     */
+    public ValidationContext fieldPresent(String fieldPath) {
+        long start = System.nanoTime();
+        check(index.containsKey(fieldPath), "Field '" + fieldPath + "' should be present in the response");
+        return timed(start);
+    }
+
+    /**
+     * Fails with every collected failure at once, if there were any.
+     */
+    public ValidationContext verify() {
+        List<String> reported = new ArrayList<>(failures.size() + 1);
+        if (parseError != null) {
+            reported.add("Response body is not valid JSON: " + parseError);
+        }
+        reported.addAll(failures);
+        if (!reported.isEmpty()) {
+            throw new AssertionError(reported.size() + " of " + assertions + " assertions failed:\n - "
+                    + String.join("\n - ", reported));
+        }
+        return this;
+    }
+
+    // --- Lookups and timing ---
+
+    /**
+     * Value at a path such as "title", "owner.name" or "[2].id"; null when absent or JSON
+     * null. As with jsonPath, an object comes back as a Map and an array as a List.
+     */
+    public Object get(String fieldPath) {
+        Object value = index.get(fieldPath);
+        return value == NULL ? null : value;
+    }
+
+    public int getAssertionCount() {
+        return assertions;
+    }
+
+    public List<String> getFailures() {
+        return List.copyOf(failures);
+    }
+
+    /**
+     * Time spent parsing and asserting on the client, in nanoseconds.
+     */
+    public long getValidationNanos() {
+        return validationNanos;
+    }
+
+    /**
+     * Time REST Assured measured for the request itself, in milliseconds.
+     */
+    public long getNetworkMillis() {
+        return response.getTime();
+    }
+
+    public String timingSummary() {
+        return String.format("network=%dms validation=%.3fms (%d assertions, body parsed once)",
+                getNetworkMillis(), validationNanos / 1_000_000.0, assertions);
+    }
+
+    private void check(boolean passed, String failureMessage) {
+        assertions++;
+        if (!passed) {
+            failures.add(failureMessage);
+        }
+    }
+
+    private ValidationContext timed(long start) {
+        validationNanos += System.nanoTime() - start;
+        return this;
+    }
+
+    private static boolean valuesEqual(Object actual, Object expected) {
+        if (actual instanceof Number a && expected instanceof Number e) {
+            boolean integral = !(a instanceof Double || a instanceof Float || e instanceof Double || e instanceof Float);
+            return integral ? a.longValue() == e.longValue() : Double.compare(a.doubleValue(), e.doubleValue()) == 0;
+        }
+        return Objects.equals(actual, expected);
+    }
+
+    // --- Indexing ---
+
+    /**
+     * Indexes the value at the current token and every value nested in it, and returns it
+     * (null for JSON null). Objects and arrays are indexed too, as read-only Maps and Lists.
+     */
+    private static Object flatten(JsonParser parser, String path, Map<String, Object> index) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            return null;
+        }
+        Object value = switch (token) {
+            case START_OBJECT -> {
+                Map<String, Object> object = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    object.put(field, flatten(parser, path.isEmpty() ? field : path + "." + field, index));
+                }
+                yield Collections.unmodifiableMap(object);
+            }
+            case START_ARRAY -> {
+                List<Object> array = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(flatten(parser, path + "[" + array.size() + "]", index));
+                }
+                index.put(path.isEmpty() ? "size()" : path + ".size()", array.size());
+                yield Collections.unmodifiableList(array);
+            }
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberType() == JsonParser.NumberType.INT
+                    ? (Object) parser.getIntValue() : (Object) parser.getLongValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            default -> {
+                parser.skipChildren();
+                yield null;
+            }
+        };
+        index.put(path, value == null ? NULL : value);
+        return value;
+    }
+}